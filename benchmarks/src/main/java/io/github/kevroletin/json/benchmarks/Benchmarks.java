@@ -0,0 +1,36 @@
+package io.github.kevroletin.json.benchmarks;
+
+import java.io.OutputStream;
+import java.io.Writer;
+
+/** Helpers shared by benchmarks. */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /** Discards output, so only serialization is measured. */
+    static final class NullWriter extends Writer {
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    static final class NullOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
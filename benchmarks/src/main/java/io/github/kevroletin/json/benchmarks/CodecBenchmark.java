@@ -0,0 +1,79 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.json.AccessorStrategy;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.benchmarks.Model.CodecUser;
+import io.github.kevroletin.json.benchmarks.Model.User;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compile time codecs of @JsonCodec classes against runtime accessors of
+ * the same SMALL_DTOS corpus.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    // Used for User, CodecUser always goes through its codec
+    @Param({"REFLECTION", "METHOD_HANDLES", "GENERATED"})
+    public AccessorStrategy strategy;
+
+    private String json;
+
+    private Json runtime;
+
+    private Json codecs;
+
+    private User[] users;
+
+    private CodecUser[] codecUsers;
+
+    @Setup
+    public void setup() throws Exception {
+        Corpus c = Corpus.get(Corpus.SMALL_DTOS);
+        json = c.json;
+        users = (User[]) c.value;
+        runtime = new Json(Corpus.config().withAccessorStrategy(strategy));
+        codecs = new Json(Corpus.config());
+        codecUsers = codecs.fromJson(json, CodecUser[].class);
+        if (!json.equals(codecs.toJson(codecUsers))) {
+            throw new IllegalStateException("Codec output differs");
+        }
+    }
+
+    @Benchmark
+    public Result<?> deserializeRuntime() {
+        return runtime.fromJsonNoThrow(json, User[].class);
+    }
+
+    @Benchmark
+    public Result<?> deserializeCodec() {
+        return codecs.fromJsonNoThrow(json, CodecUser[].class);
+    }
+
+    @Benchmark
+    public void serializeRuntime() throws SerializationException {
+        runtime.toJson(users, new Benchmarks.NullWriter());
+    }
+
+    @Benchmark
+    public void serializeCodec() throws SerializationException {
+        codecs.toJson(codecUsers, new Benchmarks.NullWriter());
+    }
+}
@@ -0,0 +1,188 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.TelephoneNumber;
+import io.github.kevroletin.json.Config;
+import io.github.kevroletin.json.benchmarks.Model.Address;
+import io.github.kevroletin.json.benchmarks.Model.Article;
+import io.github.kevroletin.json.benchmarks.Model.Series;
+import io.github.kevroletin.json.benchmarks.Model.Tree;
+import io.github.kevroletin.json.benchmarks.Model.User;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.TypeToken;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+
+/** Generated documents. Data is random but the same on every run.
+ *
+ * - SMALL_DTOS: array of users with a nested address and a sanitized phone
+ * - DEEP_NESTING: objects nested 500 levels deep
+ * - NUMERIC_ARRAYS: long arrays of doubles and integers
+ * - STRING_HEAVY: long strings with escapes and non-ASCII characters
+ * - PHONE_MAP: object with TelephoneNumber keys, can't be serialized
+ */
+public final class Corpus {
+
+    public static final String SMALL_DTOS = "SMALL_DTOS";
+    public static final String DEEP_NESTING = "DEEP_NESTING";
+    public static final String NUMERIC_ARRAYS = "NUMERIC_ARRAYS";
+    public static final String STRING_HEAVY = "STRING_HEAVY";
+    public static final String PHONE_MAP = "PHONE_MAP";
+
+    public final String name;
+
+    public final Type type;
+
+    // null if the corpus can't be serialized
+    public final Object value;
+
+    public final String json;
+
+    public final byte[] utf8;
+
+    private Corpus(String name, Type type, Object value, String json) {
+        this.name = name;
+        this.type = type;
+        this.value = value;
+        this.json = json;
+        this.utf8 = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Config which knows how to read all corpora. */
+    public static Config config() {
+        return new Config().withTypeAdapter(TelephoneNumber.class, new TelephoneNumber.TelephoneNumberAdapter());
+    }
+
+    public static Corpus get(String name) throws SerializationException {
+        Random rnd = new Random(42);
+        switch (name) {
+            case SMALL_DTOS:
+                return serialized(name, users(rnd, 1000));
+            case DEEP_NESTING:
+                return serialized(name, tree(500));
+            case NUMERIC_ARRAYS:
+                return serialized(name, series(rnd, 20, 5000));
+            case STRING_HEAVY:
+                return serialized(name, articles(rnd, 200));
+            case PHONE_MAP:
+                return phoneMap(rnd, 10000);
+            default:
+                throw new IllegalArgumentException("Unknown corpus " + name);
+        }
+    }
+
+    private static Corpus serialized(String name, Object value) throws SerializationException {
+        return new Corpus(name, value.getClass(), value, new Json(config()).toJson(value));
+    }
+
+    public static String phone(Random rnd) {
+        StringBuilder res = new StringBuilder("7");
+        for (int i = 0; i < 10; ++i) {
+            res.append((char) ('0' + rnd.nextInt(10)));
+        }
+        return res.toString();
+    }
+
+    static String word(Random rnd) {
+        int n = 3 + rnd.nextInt(8);
+        StringBuilder res = new StringBuilder(n);
+        for (int i = 0; i < n; ++i) {
+            res.append((char) ('a' + rnd.nextInt(26)));
+        }
+        return res.toString();
+    }
+
+    public static User[] users(Random rnd, int n) {
+        User[] res = new User[n];
+        for (int i = 0; i < n; ++i) {
+            User u = new User();
+            u.id = i;
+            u.name = word(rnd) + " " + word(rnd);
+            u.email = word(rnd) + "@" + word(rnd) + ".com";
+            u.score = rnd.nextDouble() * 100;
+            u.active = rnd.nextBoolean();
+            u.phone = phone(rnd);
+            u.tags = new String[rnd.nextInt(4)];
+            for (int j = 0; j < u.tags.length; ++j) {
+                u.tags[j] = word(rnd);
+            }
+            u.address = new Address();
+            u.address.city = word(rnd);
+            u.address.street = word(rnd) + " " + rnd.nextInt(200);
+            u.address.zip = 10000 + rnd.nextInt(90000);
+            res[i] = u;
+        }
+        return res;
+    }
+
+    static Tree tree(int depth) {
+        Tree res = null;
+        for (int i = depth; i > 0; --i) {
+            Tree t = new Tree();
+            t.depth = i;
+            t.label = "level " + i;
+            t.child = res;
+            res = t;
+        }
+        return res;
+    }
+
+    static Series[] series(Random rnd, int n, int len) {
+        Series[] res = new Series[n];
+        for (int i = 0; i < n; ++i) {
+            Series s = new Series();
+            s.name = word(rnd);
+            s.values = new Double[len];
+            s.counts = new Integer[len];
+            for (int j = 0; j < len; ++j) {
+                s.values[j] = rnd.nextGaussian() * 1000;
+                s.counts[j] = rnd.nextInt();
+            }
+            res[i] = s;
+        }
+        return res;
+    }
+
+    static String text(Random rnd, int words) {
+        String[] special = {"\"quoted\"", "back\\slash", "tab\there", "line\nbreak",
+                            "\u041f\u0440\u0438\u0432\u0435\u0442", "\u65e5\u672c\u8a9e", "\ud83d\ude00"};
+        StringBuilder res = new StringBuilder();
+        for (int i = 0; i < words; ++i) {
+            if (i > 0) {
+                res.append(' ');
+            }
+            res.append(rnd.nextInt(10) == 0 ? special[rnd.nextInt(special.length)] : word(rnd));
+        }
+        return res.toString();
+    }
+
+    static Article[] articles(Random rnd, int n) {
+        Article[] res = new Article[n];
+        for (int i = 0; i < n; ++i) {
+            Article a = new Article();
+            a.title = text(rnd, 8);
+            a.body = text(rnd, 500);
+            a.comments = new String[rnd.nextInt(10)];
+            for (int j = 0; j < a.comments.length; ++j) {
+                a.comments[j] = text(rnd, 30);
+            }
+            res[i] = a;
+        }
+        return res;
+    }
+
+    static Corpus phoneMap(Random rnd, int n) {
+        StringBuilder res = new StringBuilder("{");
+        for (int i = 0; i < n; ++i) {
+            if (i > 0) {
+                res.append(", ");
+            }
+            res.append('"').append(phone(rnd)).append("\": ").append(rnd.nextBoolean());
+        }
+        res.append('}');
+        Type type = new TypeToken<Map<TelephoneNumber, Boolean>>(){}.getType();
+        return new Corpus(PHONE_MAP, type, null, res.toString());
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.json.AccessorStrategy;
+import io.github.kevroletin.json.Config;
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Deserializer.deserialize from a tree, a lazy tree and a stream. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeserializeBenchmark {
+
+    @Param({Corpus.SMALL_DTOS, Corpus.DEEP_NESTING, Corpus.NUMERIC_ARRAYS, Corpus.STRING_HEAVY, Corpus.PHONE_MAP})
+    public String corpus;
+
+    @Param({"REFLECTION", "METHOD_HANDLES", "GENERATED"})
+    public AccessorStrategy strategy;
+
+    private Corpus c;
+
+    private Config config;
+
+    private Deserializer deserializer;
+
+    @Setup
+    public void setup() throws Exception {
+        c = Corpus.get(corpus);
+        config = Corpus.config().withAccessorStrategy(strategy);
+        deserializer = new Deserializer(config);
+        Result<?> res = deserializer.deserialize(new JsonReader(c.json), c.type);
+        if (res.hasErrors()) {
+            throw new IllegalStateException(res.getErrors().toString());
+        }
+    }
+
+    /** Two phases: parse into a tree, then bind. */
+    @Benchmark
+    public Result<?> tree() throws JsonParsingException {
+        return deserializer.deserialize(JsonParser.parse(c.json), c.type);
+    }
+
+    @Benchmark
+    public Result<?> lazyTree() throws JsonParsingException {
+        return deserializer.deserialize(JsonParser.parseLazy(c.json), c.type);
+    }
+
+    /** Binds straight from tokens, like Json.fromJson does. */
+    @Benchmark
+    public Result<?> streaming() throws JsonParsingException {
+        return deserializer.deserialize(new JsonReader(c.json), c.type);
+    }
+
+    @Benchmark
+    public Result<?> streamingUtf8() throws JsonParsingException {
+        return deserializer.deserialize(new JsonReader(c.utf8, 0, c.utf8.length), c.type);
+    }
+
+    /** Binding plans, handlers and sanitizers are cached per Deserializer,
+     * so this is the cost without the caches.
+     */
+    @Benchmark
+    public Result<?> freshDeserializer() throws JsonParsingException {
+        return new Deserializer(config).deserialize(new JsonReader(c.json), c.type);
+    }
+}
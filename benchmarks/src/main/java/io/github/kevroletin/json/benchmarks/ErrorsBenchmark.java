@@ -0,0 +1,74 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.benchmarks.Model.User;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Deserialization of a document where every user has invalid fields:
+ * collecting all errors, stopping at maxErrors and rendering messages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ErrorsBenchmark {
+
+    // Config.UNLIMITED_ERRORS, 1 is fail-fast
+    @Param({"2147483647", "10", "1"})
+    public int maxErrors;
+
+    private String json;
+
+    private Deserializer deserializer;
+
+    @Setup
+    public void setup() throws Exception {
+        json = Corpus.get(Corpus.SMALL_DTOS).json
+            .replaceAll("\"id\":(\\d+)", "\"id\":\"$1\"")
+            .replaceAll("\"phone\":\"7", "\"phone\":\"1");
+        deserializer = new Deserializer(Corpus.config().withMaxErrors(maxErrors));
+        Result<?> res = deserializer.deserialize(new JsonReader(json), User[].class);
+        if (!res.hasErrors()) {
+            throw new IllegalStateException("Corpus should be invalid");
+        }
+    }
+
+    /** Messages are formatted only when read, so this doesn't render
+     * locations.
+     */
+    @Benchmark
+    public Result<?> streaming() throws JsonParsingException {
+        return deserializer.deserialize(new JsonReader(json), User[].class);
+    }
+
+    @Benchmark
+    public Result<?> tree() throws JsonParsingException {
+        return deserializer.deserialize(JsonParser.parse(json), User[].class);
+    }
+
+    @Benchmark
+    public void streamingRendered(Blackhole bh) throws JsonParsingException {
+        for (String e: deserializer.deserialize(new JsonReader(json), User[].class).getErrors()) {
+            bh.consume(e);
+        }
+    }
+}
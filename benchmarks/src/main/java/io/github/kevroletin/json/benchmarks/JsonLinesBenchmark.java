@@ -0,0 +1,57 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.json.benchmarks.Model.User;
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Newline delimited users read sequentially and in parallel. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonLinesBenchmark {
+
+    private String lines;
+
+    private byte[] utf8;
+
+    private Json json;
+
+    @Setup
+    public void setup() throws Exception {
+        json = new Json(Corpus.config());
+        StringBuilder res = new StringBuilder();
+        for (User u: Corpus.users(new Random(11), 20000)) {
+            res.append(json.toJson(u)).append('\n');
+        }
+        lines = res.toString();
+        utf8 = lines.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void sequential(Blackhole bh) {
+        json.readLines(new StringReader(lines), User.class).forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void parallel(Blackhole bh) {
+        json.readLinesParallel(new ByteArrayInputStream(utf8), User.class).forEach(bh::consume);
+    }
+}
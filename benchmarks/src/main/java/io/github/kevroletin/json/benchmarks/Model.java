@@ -0,0 +1,69 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.TelephoneNumber;
+import io.github.kevroletin.json.annotations.JsonCodec;
+import io.github.kevroletin.json.annotations.Sanitizer;
+
+/** Classes of the benchmark corpora. Serializer doesn't support collections,
+ * so arrays are used everywhere.
+ */
+public class Model {
+
+    public static class User {
+        public Integer id;
+        public String name;
+        public String email;
+        public Double score;
+        public Boolean active;
+        @Sanitizer(cls = TelephoneNumber.TelephoneAsStringSanitizerFactory.class)
+        public String phone;
+        public String[] tags;
+        public Address address;
+    }
+
+    public static class Address {
+        public String city;
+        public String street;
+        public Integer zip;
+    }
+
+    /** Linked list, so a document is nested as deep as it is long. */
+    public static class Tree {
+        public Integer depth;
+        public String label;
+        public Tree child;
+    }
+
+    public static class Series {
+        public String name;
+        public Double[] values;
+        public Integer[] counts;
+    }
+
+    public static class Article {
+        public String title;
+        public String body;
+        public String[] comments;
+    }
+
+    /** Same as User but with a codec generated by the annotation processor. */
+    @JsonCodec
+    public static class CodecUser {
+        public Integer id;
+        public String name;
+        public String email;
+        public Double score;
+        public Boolean active;
+        @Sanitizer(cls = TelephoneNumber.TelephoneAsStringSanitizerFactory.class)
+        public String phone;
+        public String[] tags;
+        public CodecAddress address;
+    }
+
+    @JsonCodec
+    public static class CodecAddress {
+        public String city;
+        public String street;
+        public Integer zip;
+    }
+}
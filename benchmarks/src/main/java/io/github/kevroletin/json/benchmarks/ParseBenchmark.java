@@ -0,0 +1,99 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** JsonParser.parse from different inputs, lazy parsing and skipping. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParseBenchmark {
+
+    @Param({Corpus.SMALL_DTOS, Corpus.DEEP_NESTING, Corpus.NUMERIC_ARRAYS, Corpus.STRING_HEAVY, Corpus.PHONE_MAP})
+    public String corpus;
+
+    private Corpus c;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws Exception {
+        c = Corpus.get(corpus);
+        file = Files.createTempFile("json-benchmark", ".json");
+        Files.write(file, c.utf8);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public INode parseString() throws JsonParsingException {
+        return JsonParser.parse(c.json);
+    }
+
+    @Benchmark
+    public INode parseReader() throws JsonParsingException {
+        return JsonParser.parse(new StringReader(c.json));
+    }
+
+    @Benchmark
+    public INode parseUtf8() throws JsonParsingException {
+        return JsonParser.parse(c.utf8, 0, c.utf8.length);
+    }
+
+    @Benchmark
+    public INode parsePath() throws JsonParsingException {
+        return JsonParser.parse(file);
+    }
+
+    /** What parsePath replaces: the whole file decoded into a String. */
+    @Benchmark
+    public INode parseReadAllBytes() throws JsonParsingException, IOException {
+        return JsonParser.parse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+    }
+
+    /** Children are parsed on access, so this is mostly a validating scan. */
+    @Benchmark
+    public INode parseLazy() throws JsonParsingException {
+        return JsonParser.parseLazy(c.json);
+    }
+
+    @Benchmark
+    public long skipValue() throws JsonParsingException {
+        JsonReader in = new JsonReader(c.json);
+        in.skipValue();
+        return in.getSkippedChars();
+    }
+
+    @Benchmark
+    public long skipValueUnchecked() throws JsonParsingException {
+        JsonReader in = new JsonReader(c.json);
+        in.skipValueUnchecked();
+        return in.getSkippedChars();
+    }
+}
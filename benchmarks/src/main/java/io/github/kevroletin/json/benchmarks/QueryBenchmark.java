@@ -0,0 +1,112 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonQuery;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.benchmarks.Model.User;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Reading a part of a document: skipping unknown fields, json pointers and
+ * json path queries, compared with deserializing everything.
+ *
+ * The document is {"meta": <NUMERIC_ARRAYS>, "users": <SMALL_DTOS>}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    public static class Envelope {
+        public User[] users;
+    }
+
+    private String json;
+
+    private INode ast;
+
+    private Json strict;
+
+    private Json lenient;
+
+    private Deserializer strictDeserializer;
+
+    private Deserializer lenientDeserializer;
+
+    private JsonQuery query;
+
+    @Setup
+    public void setup() throws Exception {
+        Json full = new Json(Corpus.config());
+        json = "{\"meta\": " + Corpus.get(Corpus.NUMERIC_ARRAYS).json
+            + ", \"users\": " + full.toJson(Corpus.users(new Random(7), 1000)) + "}";
+        ast = JsonParser.parse(json);
+        strict = full;
+        lenient = full.withLenientSkip(true);
+        strictDeserializer = new Deserializer(Corpus.config());
+        lenientDeserializer = new Deserializer(Corpus.config().withLenientSkip(true));
+        query = JsonQuery.compile("$.users[*].address.city");
+    }
+
+    /** meta is skipped as an unknown field with full validation. */
+    @Benchmark
+    public Result<?> skipStrict() throws JsonParsingException {
+        return strictDeserializer.deserialize(new JsonReader(json), Envelope.class);
+    }
+
+    @Benchmark
+    public Result<?> skipLenient() throws JsonParsingException {
+        return lenientDeserializer.deserialize(new JsonReader(json), Envelope.class);
+    }
+
+    @Benchmark
+    public Result<?> extractAll() {
+        return strict.extractNoThrow(json, "/users", User[].class);
+    }
+
+    /** Stops reading after the value, so the rest of users is not read. */
+    @Benchmark
+    public Result<?> extractOne() {
+        return strict.extractNoThrow(json, "/users/10", User.class);
+    }
+
+    @Benchmark
+    public Result<?> extractOneLenient() {
+        return lenient.extractNoThrow(json, "/users/10", User.class);
+    }
+
+    @Benchmark
+    public void queryStream(Blackhole bh) throws JsonParsingException {
+        query.evaluate(json, bh::consume);
+    }
+
+    @Benchmark
+    public void queryTree(Blackhole bh) {
+        query.evaluate(ast, bh::consume);
+    }
+
+    /** What queryStream replaces: parsing the whole document first. */
+    @Benchmark
+    public void parseAndQueryTree(Blackhole bh) throws JsonParsingException {
+        query.evaluate(JsonParser.parse(json), bh::consume);
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.JsonParser;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** INode.toJson and toPrettyJson of a parsed document. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderBenchmark {
+
+    @Param({Corpus.SMALL_DTOS, Corpus.DEEP_NESTING, Corpus.NUMERIC_ARRAYS, Corpus.STRING_HEAVY, Corpus.PHONE_MAP})
+    public String corpus;
+
+    private INode ast;
+
+    @Setup
+    public void setup() throws Exception {
+        ast = JsonParser.parse(Corpus.get(corpus).json);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return ast.toJson();
+    }
+
+    @Benchmark
+    public String toPrettyJson() {
+        return ast.toPrettyJson();
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.kevroletin.json.benchmarks;
+
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AccessorStrategy;
+import io.github.kevroletin.json.Config;
+import io.github.kevroletin.json.JsonWriter;
+import io.github.kevroletin.json.Serializer;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Serializer.serialize into a tree and into a stream. PHONE_MAP is left
+ * out: Serializer doesn't support maps.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializeBenchmark {
+
+    @Param({Corpus.SMALL_DTOS, Corpus.DEEP_NESTING, Corpus.NUMERIC_ARRAYS, Corpus.STRING_HEAVY})
+    public String corpus;
+
+    @Param({"REFLECTION", "METHOD_HANDLES", "GENERATED"})
+    public AccessorStrategy strategy;
+
+    private Corpus c;
+
+    private Config config;
+
+    private Serializer serializer;
+
+    @Setup
+    public void setup() throws Exception {
+        c = Corpus.get(corpus);
+        config = Corpus.config().withAccessorStrategy(strategy);
+        serializer = new Serializer(config);
+    }
+
+    @Benchmark
+    public INode tree() throws SerializationException {
+        return serializer.serialize(c.value);
+    }
+
+    /** The path Json.toJson used before the streaming writer. */
+    @Benchmark
+    public String treeToJson() throws SerializationException {
+        return serializer.serialize(c.value).toJson();
+    }
+
+    @Benchmark
+    public void streaming() throws SerializationException {
+        JsonWriter out = new JsonWriter(new Benchmarks.NullWriter());
+        serializer.serialize(c.value, out);
+        out.flush();
+    }
+
+    @Benchmark
+    public void streamingUtf8() throws SerializationException {
+        JsonWriter out = new JsonWriter(new Benchmarks.NullOutputStream());
+        serializer.serialize(c.value, out);
+        out.flush();
+    }
+
+    /** Serialization plans are cached per Serializer. */
+    @Benchmark
+    public void freshSerializer() throws SerializationException {
+        JsonWriter out = new JsonWriter(new Benchmarks.NullWriter());
+        new Serializer(config).serialize(c.value, out);
+        out.flush();
+    }
+}
@@ -0,0 +1,453 @@
+package io.github.kevroletin.json.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/** Generates GeneratedCodec subclasses for classes annotated with
+ * @JsonCodec.
+ *
+ * A codec is generated next to the annotated class, so it can access
+ * package-private fields and constructors. Fields are bound like
+ * Deserializer binds them with reflection: all non-static fields of the
+ * class and its superclasses, with @Sanitizer honored. Codecs are listed in
+ * META-INF/services/io.github.kevroletin.json.GeneratedCodec.
+ *
+ * Annotations are matched by name, so the processor doesn't depend on the
+ * json library.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.JSON_CODEC)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String JSON_CODEC = "io.github.kevroletin.json.annotations.JsonCodec";
+
+    static final String SANITIZER = "io.github.kevroletin.json.annotations.Sanitizer";
+
+    static final String SERVICE_FILE = "META-INF/services/io.github.kevroletin.json.GeneratedCodec";
+
+    static final String SUFFIX = "_JsonCodec";
+
+    private static class FieldInfo {
+        final String name;
+
+        final TypeMirror type;
+
+        // Class literal of SanitizerFactory or null
+        final String sanitizer;
+
+        FieldInfo(String name, TypeMirror type, String sanitizer) {
+            this.name = name;
+            this.type = type;
+            this.sanitizer = sanitizer;
+        }
+    }
+
+    // Binary names of codecs generated in all rounds
+    private final Set<String> codecs = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment env) {
+        for (TypeElement ann: annotations) {
+            for (Element e: env.getElementsAnnotatedWith(ann)) {
+                if (e.getKind() != ElementKind.CLASS) {
+                    error(e, "@JsonCodec can be applied only to classes");
+                    continue;
+                }
+                generate((TypeElement) e);
+            }
+        }
+        if (env.processingOver() && !codecs.isEmpty()) {
+            writeServiceFile();
+        }
+        return true;
+    }
+
+    private void error(Element e, String frmt, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(frmt, args), e);
+    }
+
+    private void generate(TypeElement cls) {
+        boolean ok = true;
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(cls);
+        if (cls.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(cls, "@JsonCodec class can't be abstract");
+            ok = false;
+        }
+        if (!cls.getTypeParameters().isEmpty()) {
+            error(cls, "@JsonCodec class can't have type parameters");
+            ok = false;
+        }
+        if (!isAccessible(cls, pkg)) {
+            error(cls, "@JsonCodec class should be top level or static nested and not private");
+            ok = false;
+        }
+        if (!hasDefaultConstructor(cls)) {
+            error(cls, "@JsonCodec class should have non-private default constructor");
+            ok = false;
+        }
+        List<FieldInfo> fields = collectFields(cls, pkg);
+        if (!ok || fields == null) {
+            return;
+        }
+        Collections.sort(fields, (a, b) -> a.name.compareTo(b.name));
+
+        String codecName = codecName(cls);
+        String pkgName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String binaryName = pkgName.isEmpty() ? codecName : pkgName + "." + codecName;
+        try {
+            FileObject file = processingEnv.getFiler().createSourceFile(binaryName, cls);
+            try (Writer out = file.openWriter()) {
+                out.write(source(pkgName, codecName, cls.getQualifiedName().toString(), fields));
+            }
+        } catch (IOException ex) {
+            error(cls, "Failed to write %s: %s", binaryName, ex.getMessage());
+            return;
+        }
+        codecs.add(binaryName);
+    }
+
+    // Outer.Inner is generated as Outer_Inner_JsonCodec
+    private static String codecName(TypeElement cls) {
+        StringBuilder res = new StringBuilder(cls.getSimpleName());
+        for (Element e = cls.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            res.insert(0, '_').insert(0, e.getSimpleName());
+        }
+        return res.append(SUFFIX).toString();
+    }
+
+    // Checks that a class can be referenced from package pkg
+    private boolean isAccessible(TypeElement cls, PackageElement pkg) {
+        PackageElement clsPkg = processingEnv.getElementUtils().getPackageOf(cls);
+        for (Element e = cls; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            TypeElement t = (TypeElement) e;
+            Set<Modifier> mods = t.getModifiers();
+            if (mods.contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (!mods.contains(Modifier.PUBLIC) && !clsPkg.equals(pkg)) {
+                return false;
+            }
+            if (t.getNestingKind() == NestingKind.MEMBER) {
+                if (t.getEnclosingElement().getKind() == ElementKind.CLASS && !mods.contains(Modifier.STATIC)) {
+                    return false;
+                }
+            } else if (t.getNestingKind() != NestingKind.TOP_LEVEL) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasDefaultConstructor(TypeElement cls) {
+        for (ExecutableElement ctor: ElementFilter.constructorsIn(cls.getEnclosedElements())) {
+            if (ctor.getParameters().isEmpty() && !ctor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns null if some field can't be bound
+    private List<FieldInfo> collectFields(TypeElement cls, PackageElement pkg) {
+        List<FieldInfo> res = new ArrayList<>();
+        Set<String> names = new TreeSet<>();
+        boolean ok = true;
+        TypeElement t = cls;
+        while (t != null && !t.getQualifiedName().contentEquals("java.lang.Object")) {
+            boolean samePackage = processingEnv.getElementUtils().getPackageOf(t).equals(pkg);
+            for (VariableElement f: ElementFilter.fieldsIn(t.getEnclosedElements())) {
+                Set<Modifier> mods = f.getModifiers();
+                if (mods.contains(Modifier.STATIC)) {
+                    continue;
+                }
+                String name = f.getSimpleName().toString();
+                if (!names.add(name)) {
+                    error(cls, "Field %s of @JsonCodec class is shadowed", name);
+                    ok = false;
+                } else if (mods.contains(Modifier.PRIVATE) || !(samePackage || mods.contains(Modifier.PUBLIC))) {
+                    error(f, "Field %s of @JsonCodec class %s is not accessible from its package",
+                          name, cls.getQualifiedName());
+                    ok = false;
+                } else if (mods.contains(Modifier.FINAL)) {
+                    error(f, "Field %s of @JsonCodec class %s can't be final", name, cls.getQualifiedName());
+                    ok = false;
+                } else if (hasTypeVariables(f.asType())) {
+                    error(f, "Field %s of @JsonCodec class %s can't use type variables",
+                          name, cls.getQualifiedName());
+                    ok = false;
+                } else {
+                    String sanitizer = sanitizer(f, pkg);
+                    if (sanitizer == null) {
+                        ok = false;
+                    } else {
+                        res.add(new FieldInfo(name, f.asType(), sanitizer.isEmpty() ? null : sanitizer));
+                    }
+                }
+            }
+            TypeMirror sup = t.getSuperclass();
+            t = sup.getKind() == TypeKind.DECLARED ? (TypeElement) ((DeclaredType) sup).asElement() : null;
+        }
+        return ok ? res : null;
+    }
+
+    private static boolean hasTypeVariables(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return true;
+            case ARRAY:
+                return hasTypeVariables(((ArrayType) type).getComponentType());
+            case WILDCARD:
+                WildcardType w = (WildcardType) type;
+                return (w.getExtendsBound() != null && hasTypeVariables(w.getExtendsBound()))
+                    || (w.getSuperBound() != null && hasTypeVariables(w.getSuperBound()));
+            case DECLARED:
+                for (TypeMirror arg: ((DeclaredType) type).getTypeArguments()) {
+                    if (hasTypeVariables(arg)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    // Returns class literal of @Sanitizer.cls, empty string if there is no
+    // annotation and null on error
+    private String sanitizer(VariableElement f, PackageElement pkg) {
+        for (AnnotationMirror ann: f.getAnnotationMirrors()) {
+            TypeElement annType = (TypeElement) ann.getAnnotationType().asElement();
+            if (!annType.getQualifiedName().contentEquals(SANITIZER)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e:
+                     ann.getElementValues().entrySet())
+            {
+                if (e.getKey().getSimpleName().contentEquals("cls")
+                    && e.getValue().getValue() instanceof DeclaredType)
+                {
+                    TypeElement factory = (TypeElement) ((DeclaredType) e.getValue().getValue()).asElement();
+                    if (!isAccessible(factory, pkg)) {
+                        error(f, "Sanitizer factory %s is not accessible from package of the field",
+                              factory.getQualifiedName());
+                        return null;
+                    }
+                    return factory.getQualifiedName() + ".class";
+                }
+            }
+            error(f, "@Sanitizer.cls is not a class");
+            return null;
+        }
+        return "";
+    }
+
+    private String typeLiteral(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type + ".class";
+        }
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (processingEnv.getTypeUtils().isSameType(type, erased)) {
+            return erased + ".class";
+        }
+        // Keeps generic arguments like Field.getGenericType does
+        return "new io.github.kevroletin.json.utils.TypeToken<" + type + ">() {}.getType()";
+    }
+
+    private String castType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    // Writes scalars like streaming Serializer does, null for other types
+    private static String inlineWrite(FieldInfo field) {
+        String f = "obj." + field.name;
+        String i = "                ";
+        switch (field.type.toString()) {
+            case "int":
+                return i + "out.value((long) " + f + ");\n";
+            case "double":
+            case "boolean":
+            case "java.lang.String":
+                return i + "out.value(" + f + ");\n";
+            case "java.lang.Integer":
+                return boxedWrite(field, "(long) v.intValue()");
+            case "java.lang.Double":
+                return boxedWrite(field, "v.doubleValue()");
+            case "java.lang.Boolean":
+                return boxedWrite(field, "v.booleanValue()");
+            default:
+                return null;
+        }
+    }
+
+    private static String boxedWrite(FieldInfo field, String value) {
+        String i = "                ";
+        return i + field.type + " v = obj." + field.name + ";\n"
+            + i + "if (v == null) {\n"
+            + i + "    out.nullValue();\n"
+            + i + "} else {\n"
+            + i + "    out.value(" + value + ");\n"
+            + i + "}\n";
+    }
+
+    // Field names are identifiers, only non-ascii characters need escaping
+    private static String literal(String str) {
+        StringBuilder res = new StringBuilder("\"");
+        for (char c: str.toCharArray()) {
+            if (c < 128) {
+                res.append(c);
+            } else {
+                res.append(String.format("\\u%04x", (int) c));
+            }
+        }
+        return res.append('"').toString();
+    }
+
+    private String source(String pkgName, String codecName, String target, List<FieldInfo> fields) {
+        StringBuilder s = new StringBuilder();
+        if (!pkgName.isEmpty()) {
+            s.append("package ").append(pkgName).append(";\n\n");
+        }
+        s.append("/** Generated by JsonCodecProcessor for ").append(target).append(". */\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(codecName)
+            .append(" extends io.github.kevroletin.json.GeneratedCodec<").append(target).append("> {\n\n")
+            .append("    public ").append(codecName).append("() {\n")
+            .append("        super(").append(target).append(".class,\n")
+            .append("              new String[] {");
+        for (FieldInfo f: fields) {
+            s.append("\n                  ").append(literal(f.name)).append(",");
+        }
+        s.append("\n              },\n")
+            .append("              new java.lang.reflect.Type[] {");
+        for (FieldInfo f: fields) {
+            s.append("\n                  ").append(typeLiteral(f.type)).append(",");
+        }
+        s.append("\n              },\n")
+            .append("              new Class[] {");
+        for (FieldInfo f: fields) {
+            s.append("\n                  ").append(f.sanitizer).append(",");
+        }
+        s.append("\n              });\n")
+            .append("    }\n\n");
+
+        s.append("    @Override\n")
+            .append("    protected ").append(target).append(" newInstance() throws Exception {\n")
+            .append("        return new ").append(target).append("();\n")
+            .append("    }\n\n");
+
+        s.append("    @Override\n")
+            .append("    protected void assign(int idx, ").append(target).append(" obj, Object value) {\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            FieldInfo f = fields.get(i);
+            s.append("            case ").append(i).append(": obj.").append(f.name)
+                .append(" = (").append(castType(f.type)).append(") value; return;\n");
+        }
+        s.append("            default: throw new IllegalArgumentException(\"No field \" + idx);\n")
+            .append("        }\n")
+            .append("    }\n\n");
+
+        s.append("    @Override\n")
+            .append("    protected Object get(int idx, ").append(target).append(" obj) {\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            s.append("            case ").append(i).append(": return obj.").append(fields.get(i).name).append(";\n");
+        }
+        s.append("            default: throw new IllegalArgumentException(\"No field \" + idx);\n")
+            .append("        }\n")
+            .append("    }\n\n");
+
+        s.append("    @Override\n")
+            .append("    protected boolean write(int idx, ").append(target)
+            .append(" obj, io.github.kevroletin.json.JsonWriter out)\n")
+            .append("        throws io.github.kevroletin.json.exceptions.SerializationException\n")
+            .append("    {\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            String write = inlineWrite(fields.get(i));
+            if (write != null) {
+                s.append("            case ").append(i).append(": {\n").append(write)
+                    .append("                return true;\n")
+                    .append("            }\n");
+            }
+        }
+        s.append("            default: return false;\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("}\n");
+        return s.toString();
+    }
+
+    // Keeps codecs listed by earlier incremental compilations
+    private void writeServiceFile() {
+        Set<String> all = new TreeSet<>(codecs);
+        try {
+            FileObject old = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader in = new BufferedReader(
+                     new InputStreamReader(old.openInputStream(), StandardCharsets.UTF_8)))
+            {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        all.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            // There is no file yet
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer out = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String name: all) {
+                    out.write(name);
+                    out.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(
+                Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package io.github.kevroletin.json.processor;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.json.Config;
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.TypeAdapter;
+import java.io.File;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonCodecProcessorTest {
+
+    static final String BASE =
+        "package sample;\n"
+        + "class Base {\n"
+        + "    public Integer version;\n"
+        + "}\n";
+
+    static final String ORDER =
+        "package sample;\n"
+        + "import io.github.kevroletin.TelephoneNumber;\n"
+        + "import io.github.kevroletin.json.annotations.JsonCodec;\n"
+        + "import io.github.kevroletin.json.annotations.Sanitizer;\n"
+        + "import java.util.List;\n"
+        + "@JsonCodec\n"
+        + "public class Order extends Base {\n"
+        + "    int id;\n"
+        + "    public String name;\n"
+        + "    @Sanitizer(cls = TelephoneNumber.TelephoneAsStringSanitizerFactory.class)\n"
+        + "    public String phone;\n"
+        + "    public List<Integer> tags;\n"
+        + "    public double total;\n"
+        + "    public boolean paid;\n"
+        + "    public Line[] lines;\n"
+        + "    @JsonCodec\n"
+        + "    public static class Line {\n"
+        + "        public String sku;\n"
+        + "        public Boolean gift;\n"
+        + "    }\n"
+        + "}\n";
+
+    static final String[] INPUTS = {
+        "{\"version\": 1, \"id\": 2, \"name\": \"n\", \"phone\": \"8 900 000 00 00\", \"tags\": [1, 2], "
+            + "\"total\": 2.5, \"paid\": true, "
+            + "\"lines\": [{\"sku\": \"x\", \"gift\": null}], \"extra\": {\"a\": [1]}}",
+        "{\"version\": null, \"id\": 1.5, \"name\": 1, \"phone\": \"123\", \"tags\": [true], "
+            + "\"total\": 1, \"paid\": null, \"lines\": [{}], \"id\": 3}",
+        "{\"phone\": null, \"lines\": null}",
+        "[]",
+        "null",
+    };
+
+    static class Compilation {
+        final boolean success;
+
+        final List<String> errors = new ArrayList<>();
+
+        final Path out;
+
+        Compilation(boolean success, Path out) {
+            this.success = success;
+            this.out = out;
+        }
+    }
+
+    static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(
+            URI.create("string:///" + name.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+
+    static Compilation compile(JavaFileObject... sources) throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("Tests need JDK", compiler);
+        Path out = Files.createTempDirectory("json-processor");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fm = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fm.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(out.toFile()));
+            fm.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(out.toFile()));
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"));
+            JavaCompiler.CompilationTask task =
+                compiler.getTask(null, fm, diagnostics, options, null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new JsonCodecProcessor()));
+            Compilation res = new Compilation(task.call(), out);
+            for (Diagnostic<?> d: diagnostics.getDiagnostics()) {
+                if (d.getKind() == Diagnostic.Kind.ERROR) {
+                    res.errors.add(d.getMessage(null));
+                }
+            }
+            return res;
+        }
+    }
+
+    // Serializer doesn't support lists, so values are compared field by field
+    static String dump(Object x) throws Exception {
+        if (x == null || x instanceof String || x instanceof Number || x instanceof Boolean) {
+            return String.valueOf(x);
+        }
+        if (x instanceof List) {
+            List<String> res = new ArrayList<>();
+            for (Object elem: (List<?>) x) {
+                res.add(dump(elem));
+            }
+            return res.toString();
+        }
+        if (x.getClass().isArray()) {
+            List<String> res = new ArrayList<>();
+            for (int i = 0; i < Array.getLength(x); ++i) {
+                res.add(dump(Array.get(x, i)));
+            }
+            return res.toString();
+        }
+        StringBuilder res = new StringBuilder("{");
+        for (Class<?> cls = x.getClass(); cls != Object.class; cls = cls.getSuperclass()) {
+            for (Field f: cls.getDeclaredFields()) {
+                f.setAccessible(true);
+                res.append(f.getName()).append('=').append(dump(f.get(x))).append(' ');
+            }
+        }
+        return res.append('}').toString();
+    }
+
+    static ClassLoader load(Compilation c) throws Exception {
+        return new URLClassLoader(new URL[] {c.out.toUri().toURL()}, JsonCodecProcessorTest.class.getClassLoader());
+    }
+
+    @Test
+    public void testServiceFile() throws Exception {
+        Compilation c = compile(source("sample.Base", BASE), source("sample.Order", ORDER));
+        assertTrue(c.errors.toString(), c.success);
+        List<String> lines = Files.readAllLines(
+            c.out.resolve(JsonCodecProcessor.SERVICE_FILE.replace('/', File.separatorChar)),
+            StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList("sample.Order_JsonCodec", "sample.Order_Line_JsonCodec"), lines);
+    }
+
+    @Test
+    public void testSameAsReflection() throws Exception {
+        Compilation c = compile(source("sample.Base", BASE), source("sample.Order", ORDER));
+        assertTrue(c.errors.toString(), c.success);
+        ClassLoader loader = load(c);
+        Class<?> order = loader.loadClass("sample.Order");
+        Class<?> line = loader.loadClass("sample.Order$Line");
+
+        // Codecs are not visible to ServiceLoader of this test, so they are
+        // registered as type adapters
+        Config reflection = new Config();
+        Config generated = reflection
+            .withTypeAdapter(order, (TypeAdapter) loader.loadClass("sample.Order_JsonCodec").newInstance())
+            .withTypeAdapter(line, (TypeAdapter) loader.loadClass("sample.Order_Line_JsonCodec").newInstance());
+        for (String input: INPUTS) {
+            Result<?> expected = new Json(reflection).fromJsonNoThrow(input, order);
+            Result<?> res = new Json(generated).fromJsonNoThrow(input, order);
+            assertEquals(input, expected.getErrors(), res.getErrors());
+            assertEquals(input, expected.hasValue(), res.hasValue());
+            if (res.hasValue()) {
+                assertEquals(input, dump(expected.get()), dump(res.get()));
+            }
+
+            Result<?> tree = new Deserializer(generated).deserialize(JsonParser.parse(input), order);
+            assertEquals(input, expected.getErrors(), tree.getErrors());
+            if (tree.hasValue()) {
+                assertEquals(input, dump(expected.get()), dump(tree.get()));
+            }
+        }
+    }
+
+    @Test
+    public void testLenientSkip() throws Exception {
+        Compilation c = compile(source("sample.Base", BASE), source("sample.Order", ORDER));
+        assertTrue(c.errors.toString(), c.success);
+        ClassLoader loader = load(c);
+        Class<?> line = loader.loadClass("sample.Order$Line");
+        Config config = new Config()
+            .withTypeAdapter(line, (TypeAdapter) loader.loadClass("sample.Order_Line_JsonCodec").newInstance())
+            .withLenientSkip(true);
+
+        String input = "{\"sku\": \"x\", \"gift\": true, \"extra\": [1 2 :]}";
+        Result<?> res = new Deserializer(config).deserialize(new JsonReader(input), line);
+        assertTrue(res.getErrors().isEmpty());
+        assertEquals("{\"gift\":true,\"sku\":\"x\"}", new Json().toJson(res.get()));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        Compilation c = compile(source("bad.Bad",
+            "package bad;\n"
+            + "import io.github.kevroletin.json.annotations.JsonCodec;\n"
+            + "@JsonCodec\n"
+            + "public class Bad {\n"
+            + "    private int hidden;\n"
+            + "    public final int constant = 1;\n"
+            + "    public Bad(int x) {}\n"
+            + "}\n"));
+        assertFalse(c.success);
+        assertEquals(
+            Arrays.asList(
+                "@JsonCodec class should have non-private default constructor",
+                "Field hidden of @JsonCodec class bad.Bad is not accessible from its package",
+                "Field constant of @JsonCodec class bad.Bad can't be final"),
+            c.errors);
+    }
+
+    @Test
+    public void testGenericErrors() throws Exception {
+        Compilation c = compile(source("bad.Generic",
+            "package bad;\n"
+            + "import io.github.kevroletin.json.annotations.JsonCodec;\n"
+            + "public class Generic {\n"
+            + "    @JsonCodec\n"
+            + "    public static class Box<T> {\n"
+            + "        public T value;\n"
+            + "    }\n"
+            + "    @JsonCodec\n"
+            + "    public class Inner {\n"
+            + "    }\n"
+            + "    @JsonCodec\n"
+            + "    public interface Iface {\n"
+            + "    }\n"
+            + "}\n"));
+        assertFalse(c.success);
+        assertEquals(
+            Arrays.asList(
+                "@JsonCodec class can't have type parameters",
+                "Field value of @JsonCodec class bad.Generic.Box can't use type variables",
+                "@JsonCodec class should be top level or static nested and not private",
+                "@JsonCodec can be applied only to classes"),
+            c.errors);
+    }
+}
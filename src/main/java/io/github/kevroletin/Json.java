@@ -1,16 +1,34 @@
 package io.github.kevroletin;
 
-import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AccessorStrategy;
 import io.github.kevroletin.json.Config;
 import io.github.kevroletin.json.Deserializer;
-import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.ErrorList;
+import io.github.kevroletin.json.JsonPointer;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.JsonToken;
+import io.github.kevroletin.json.JsonWriter;
+import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.Result;
 import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.Serializer;
 import io.github.kevroletin.json.TypeAdapter;
 import io.github.kevroletin.json.exceptions.DeserializationException;
 import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.Maybe;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class Json {
     final Deserializer deserializer;
@@ -30,7 +48,51 @@ public class Json {
     }
 
     public String toJson(Object obj) throws SerializationException {
-        return serializer.serialize(obj).toJson();
+        StringBuilderWriter out = new StringBuilderWriter();
+        toJson(obj, out);
+        return out.res.toString();
+    }
+
+    // Unlike StringWriter doesn't synchronize on every write
+    private static final class StringBuilderWriter extends Writer {
+        final StringBuilder res = new StringBuilder();
+
+        @Override
+        public void write(char[] buf, int off, int len) {
+            res.append(buf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            res.append(str, off, off + len);
+        }
+
+        @Override
+        public void write(int c) {
+            res.append((char) c);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+
+    /** Writes compact json into out. The writer is flushed but not closed. */
+    public void toJson(Object obj, Writer out) throws SerializationException {
+        JsonWriter writer = new JsonWriter(out);
+        serializer.serialize(obj, writer);
+        writer.flush();
+    }
+
+    /** Writes UTF-8 encoded compact json into out. The stream is flushed
+     * but not closed.
+     */
+    public void toJson(Object obj, OutputStream out) throws SerializationException {
+        JsonWriter writer = new JsonWriter(out);
+        serializer.serialize(obj, writer);
+        writer.flush();
     }
 
     public String toPrettyJson(Object obj) throws SerializationException {
@@ -44,8 +106,34 @@ public class Json {
 
     public Object fromJson(String str, Type cls) throws JsonParsingException, DeserializationException
     {
-        INode ast = JsonParser.parse(str);
-        Result res = deserializer.deserialize(ast, cls);
+        Result res = deserializeDocument(new JsonReader(str), cls);
+        if (res.hasErrors()) {
+            throw new DeserializationException(String.join("; ", res.getErrors()));
+        }
+        return res.orElse(null);
+    }
+
+    public <T> T fromJson(Path path, Class<T> cls) throws JsonParsingException, DeserializationException
+    {
+        return (T) fromJson(path, (Type) cls);
+    }
+
+    /** Reads UTF-8 encoded json file through memory mapping. File contents
+     * are decoded on demand and never loaded into the Java heap as a whole.
+     */
+    public Object fromJson(Path path, Type cls) throws JsonParsingException, DeserializationException
+    {
+        Result res;
+        JsonReader in = new JsonReader(path);
+        try {
+            res = deserializeDocument(in, cls);
+        } finally {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                // The file is already read
+            }
+        }
         if (res.hasErrors()) {
             throw new DeserializationException(String.join("; ", res.getErrors()));
         }
@@ -53,20 +141,131 @@ public class Json {
     }
 
     public Result<?> fromJsonNoThrow(String str, Type type) {
-        INode ast;
         try {
-            ast = JsonParser.parse(str);
+            return deserializeDocument(new JsonReader(str), type);
         } catch (JsonParsingException ex) {
             return Result.error("Json parsing error: " + ex.getMessage());
         }
-        Result res = deserializer.deserialize(ast, type);
-        return res;
     }
 
     public <T> Result<T> fromJsonNoThrow(String str, Class<T> cls) {
         return (Result<T>) fromJsonNoThrow(str, (Type)cls);
     }
 
+    public <T> T extract(String str, String pointer, Class<T> cls)
+        throws JsonParsingException, DeserializationException
+    {
+        return (T) extract(str, pointer, (Type) cls);
+    }
+
+    /** Deserializes only the value addressed by a JSON pointer like
+     * /items/3/price.
+     *
+     * The input is read up to the end of the value; siblings on the way are
+     * skipped without building nodes. Input after the value is not checked.
+     * Error locations are relative to the document root.
+     */
+    public Object extract(String str, String pointer, Type type)
+        throws JsonParsingException, DeserializationException
+    {
+        Result res = extractDocument(new JsonReader(str), JsonPointer.compile(pointer), type);
+        if (res.hasErrors()) {
+            throw new DeserializationException(String.join("; ", res.getErrors()));
+        }
+        return res.orElse(null);
+    }
+
+    public Result<?> extractNoThrow(String str, String pointer, Type type) {
+        try {
+            return extractDocument(new JsonReader(str), JsonPointer.compile(pointer), type);
+        } catch (JsonParsingException ex) {
+            return Result.error("Json parsing error: " + ex.getMessage());
+        }
+    }
+
+    public <T> Result<T> extractNoThrow(String str, String pointer, Class<T> cls) {
+        return (Result<T>) extractNoThrow(str, pointer, (Type) cls);
+    }
+
+    private Result<?> extractDocument(JsonReader in, JsonPointer pointer, Type type)
+        throws JsonParsingException
+    {
+        Location loc = pointer.seek(in);
+        if (loc == null) {
+            return Result.error(String.format("Json pointer %s doesn't match any value", pointer));
+        }
+        return deserializer.deserialize(loc, in, type);
+    }
+
+    /** Lazily reads newline delimited json (NDJSON), one Result per line.
+     *
+     * Parser state is reused between records and input is read through a
+     * fixed size buffer, so memory usage doesn't depend on input size. A
+     * malformed line is reported as an error Result and reading continues
+     * from the next line. Closing the stream closes the reader.
+     */
+    public Stream<Result<?>> readLines(Reader reader, Type type) {
+        JsonReader in = new JsonReader(reader);
+        return JsonLines.stream(new JsonLines.LineIterator(deserializer, in, type), in, () -> {});
+    }
+
+    public <T> Stream<Result<T>> readLines(Reader reader, Class<T> cls) {
+        return readLines(reader, (Type) cls).map((x) -> (Result<T>) x);
+    }
+
+    /** Reads UTF-8 encoded newline delimited json deserializing records in
+     * parallel on the common ForkJoinPool.
+     *
+     * Same as readLines, but the input is split into chunks of whole lines
+     * which are deserialized concurrently. Results are returned in the input
+     * order. Only a few chunks per thread are read ahead, so memory usage
+     * doesn't depend on input size. Closing the stream closes the input.
+     */
+    public Stream<Result<?>> readLinesParallel(InputStream in, Type type) {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return readLinesParallel(in, type, pool, pool.getParallelism());
+    }
+
+    public Stream<Result<?>> readLinesParallel(InputStream in, Type type, ExecutorService executor) {
+        int threads = executor instanceof ForkJoinPool
+            ? ((ForkJoinPool) executor).getParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        return readLinesParallel(in, type, executor, threads);
+    }
+
+    public <T> Stream<Result<T>> readLinesParallel(InputStream in, Class<T> cls) {
+        return readLinesParallel(in, (Type) cls).map((x) -> (Result<T>) x);
+    }
+
+    private Stream<Result<?>> readLinesParallel(InputStream in, Type type, Executor executor, int threads) {
+        JsonLines.ParallelIterator it = new JsonLines.ParallelIterator(
+            deserializer, in, type, executor, 2 * Math.max(1, threads), JsonLines.CHUNK_SIZE);
+        return JsonLines.stream(it, in, it::cancel);
+    }
+
+    /** Writes values as newline delimited json (NDJSON): each value in
+     * compact form followed by a newline. The writer is flushed but not
+     * closed.
+     */
+    public void writeLines(Writer out, Iterable<?> values) throws SerializationException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.setLineDelimited(true);
+        for (Object x: values) {
+            serializer.serialize(x, writer);
+        }
+        writer.flush();
+    }
+
+    // Binds objects straight from the token stream without building INode tree
+    private Result<?> deserializeDocument(JsonReader in, Type type) throws JsonParsingException {
+        Result<?> res = deserializer.deserialize(in, type);
+        // Reading stops at Config.maxErrors errors, the rest is not checked
+        if (!ErrorList.isTruncated(res.getErrors()) && in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonParsingException("Trailing input");
+        }
+        return res;
+    }
+
     public Json withTypeAdapter(Class<?> cls, TypeAdapter<?> adapter) {
         return new Json(config.withTypeAdapter(cls, adapter));
     }
@@ -74,4 +273,27 @@ public class Json {
     public Json withoutTypeAdapter(Class<?> cls) {
         return new Json(config.withoutTypeAdapter(cls));
     }
+
+    /** Values of keys which the target class doesn't declare are skipped by
+     * matching brackets and quotes only. Errors inside of them are not
+     * reported.
+     */
+    public Json withLenientSkip(boolean lenientSkip) {
+        return new Json(config.withLenientSkip(lenientSkip));
+    }
+
+    public Json withAccessorStrategy(AccessorStrategy accessorStrategy) {
+        return new Json(config.withAccessorStrategy(accessorStrategy));
+    }
+
+    /** Deserialization stops when maxErrors errors are found, so a
+     * malformed document is rejected without reading it to the end.
+     */
+    public Json withMaxErrors(int maxErrors) {
+        return new Json(config.withMaxErrors(maxErrors));
+    }
+
+    public Json withFailFast(boolean failFast) {
+        return new Json(config.withFailFast(failFast));
+    }
 }
@@ -1,5 +1,6 @@
 package io.github.kevroletin;
 
+import io.github.kevroletin.json.AccessorStrategy;
 import io.github.kevroletin.json.Config;
 import io.github.kevroletin.json.TypeAdapter;
 import java.util.HashMap;
@@ -8,6 +9,12 @@ import java.util.Map;
 public class JsonBuilder {
     Map<Class, TypeAdapter> adapters = new HashMap();
 
+    boolean lenientSkip = false;
+
+    AccessorStrategy accessorStrategy = AccessorStrategy.REFLECTION;
+
+    int maxErrors = Config.UNLIMITED_ERRORS;
+
     public JsonBuilder typeAdapter(Class<?> cls, TypeAdapter<?> adapter) {
         if (cls == null) {
             throw new RuntimeException("cls parameter shouldn't be null");
@@ -19,7 +26,37 @@ public class JsonBuilder {
         return this;
     }
 
+    /** Skip values of unknown keys by matching brackets and quotes only.
+     */
+    public JsonBuilder lenientSkip(boolean lenientSkip) {
+        this.lenientSkip = lenientSkip;
+        return this;
+    }
+
+    public JsonBuilder accessorStrategy(AccessorStrategy accessorStrategy) {
+        if (accessorStrategy == null) {
+            throw new RuntimeException("accessorStrategy parameter shouldn't be null");
+        }
+        this.accessorStrategy = accessorStrategy;
+        return this;
+    }
+
+    /** Stop deserialization when maxErrors errors are found. */
+    public JsonBuilder maxErrors(int maxErrors) {
+        if (maxErrors < 1) {
+            throw new RuntimeException("maxErrors parameter should be positive");
+        }
+        this.maxErrors = maxErrors;
+        return this;
+    }
+
+    /** Stop deserialization at the first error. */
+    public JsonBuilder failFast(boolean failFast) {
+        this.maxErrors = failFast ? 1 : Config.UNLIMITED_ERRORS;
+        return this;
+    }
+
     public Json build() {
-        return new Json(new Config(adapters));
+        return new Json(new Config(adapters, lenientSkip, accessorStrategy, maxErrors));
     }
 }
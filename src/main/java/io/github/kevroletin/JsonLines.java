@@ -0,0 +1,261 @@
+package io.github.kevroletin;
+
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.ErrorList;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.JsonToken;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/** Readers of newline delimited json (NDJSON) behind Json.readLines.
+ */
+class JsonLines {
+
+    static final int CHUNK_SIZE = 1 << 20;
+
+    /** Deserializes records one by one from a reader in line delimited
+     * mode. Malformed line becomes an error Result and reading continues
+     * from the next line.
+     */
+    static class LineIterator implements Iterator<Result<?>> {
+        private final Deserializer deserializer;
+
+        private final JsonReader in;
+
+        private final Type type;
+
+        private Result<?> next = null;
+
+        private boolean done = false;
+
+        LineIterator(Deserializer deserializer, JsonReader in, Type type) {
+            this.deserializer = deserializer;
+            this.in = in;
+            this.type = type;
+            in.setLineDelimited(true);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = readNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Result<?> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Result<?> res = next;
+            next = null;
+            return res;
+        }
+
+        private Result<?> readNext() {
+            try {
+                if (in.peek() == JsonToken.END_DOCUMENT) {
+                    done = true;
+                    return null;
+                }
+                Result<?> res = deserializer.deserialize(in, type);
+                if (ErrorList.isTruncated(res.getErrors())) {
+                    // Reading stopped in the middle of the record
+                    in.skipLine();
+                } else {
+                    // Trailing input makes the whole line an error
+                    in.endLine();
+                }
+                return res;
+            } catch (JsonParsingException ex) {
+                try {
+                    in.skipLine();
+                } catch (JsonParsingException skipEx) {
+                    // Input can't be read any further
+                    done = true;
+                }
+                return Result.error("Json parsing error: " + ex.getMessage());
+            }
+        }
+    }
+
+    /** Splits input into chunks of whole lines and deserializes chunks on an
+     * executor. Results are returned in the input order. At most window
+     * chunks are read ahead, so memory usage doesn't depend on input size.
+     */
+    static class ParallelIterator implements Iterator<Result<?>> {
+        private final Deserializer deserializer;
+
+        private final InputStream in;
+
+        private final Type type;
+
+        private final Executor executor;
+
+        private final int window;
+
+        private final int chunkSize;
+
+        private final ArrayDeque<CompletableFuture<List<Result<?>>>> pending = new ArrayDeque<>();
+
+        private Iterator<Result<?>> current = Collections.emptyIterator();
+
+        // Beginning of an incomplete line left from the previous chunk
+        private byte[] carry = new byte[0];
+
+        private int carryLen = 0;
+
+        private boolean eof = false;
+
+        private Result<?> readError = null;
+
+        ParallelIterator(Deserializer deserializer, InputStream in, Type type,
+                         Executor executor, int window, int chunkSize)
+        {
+            assert(window > 0 && chunkSize > 0);
+            this.deserializer = deserializer;
+            this.in = in;
+            this.type = type;
+            this.executor = executor;
+            this.window = window;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext()) {
+                submitChunks();
+                CompletableFuture<List<Result<?>>> f = pending.poll();
+                if (f != null) {
+                    current = f.join().iterator();
+                } else if (readError != null) {
+                    current = Collections.<Result<?>>singletonList(readError).iterator();
+                    readError = null;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Result<?> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        void cancel() {
+            for (CompletableFuture<?> f: pending) {
+                f.cancel(false);
+            }
+            pending.clear();
+        }
+
+        private void submitChunks() {
+            while (pending.size() < window && !eof) {
+                ByteBuffer chunk = nextChunk();
+                if (chunk == null) {
+                    return;
+                }
+                pending.add(CompletableFuture.supplyAsync(() -> decode(chunk), executor));
+            }
+        }
+
+        private List<Result<?>> decode(ByteBuffer chunk) {
+            List<Result<?>> res = new ArrayList<>();
+            LineIterator it = new LineIterator(deserializer, new JsonReader(chunk), type);
+            while (it.hasNext()) {
+                res.add(it.next());
+            }
+            return res;
+        }
+
+        /** Returns bytes up to the last newline or null at the end of input.
+         * Read error is treated as the end of input and reported after the
+         * lines read before it.
+         */
+        private ByteBuffer nextChunk() {
+            byte[] buf = new byte[Math.max(chunkSize, carryLen * 2)];
+            System.arraycopy(carry, 0, buf, 0, carryLen);
+            int len = carryLen;
+            int searchFrom = carryLen;
+            while (true) {
+                int n = 0;
+                while (len < buf.length && (n = read(buf, len)) != -1) {
+                    len += n;
+                }
+                if (n == -1) {
+                    eof = true;
+                    carryLen = 0;
+                    return len == 0 ? null : ByteBuffer.wrap(buf, 0, len);
+                }
+                int cut = lastNewline(buf, searchFrom, len);
+                if (cut != -1) {
+                    carryLen = len - cut - 1;
+                    if (carry.length < carryLen) {
+                        carry = new byte[Math.max(carryLen, chunkSize)];
+                    }
+                    System.arraycopy(buf, cut + 1, carry, 0, carryLen);
+                    return ByteBuffer.wrap(buf, 0, cut + 1);
+                }
+                // Line is longer than the chunk
+                searchFrom = len;
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+        }
+
+        private int read(byte[] buf, int off) {
+            try {
+                return in.read(buf, off, buf.length - off);
+            } catch (IOException ex) {
+                readError = Result.error("Json parsing error: Failed to read input: " + ex.getMessage());
+                return -1;
+            }
+        }
+
+        private static int lastNewline(byte[] buf, int from, int to) {
+            for (int i = to - 1; i >= from; --i) {
+                if (buf[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    static Stream<Result<?>> stream(Iterator<Result<?>> it, Closeable input, Runnable cancel) {
+        Stream<Result<?>> res = StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL),
+            false);
+        return res.onClose(() -> {
+            cancel.run();
+            try {
+                input.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
@@ -54,6 +54,11 @@ public class TelephoneNumber {
             return new TelephoneAsStringSanitizer();
         }
 
+        @Override
+        public boolean isThreadSafe() {
+            return true;
+        }
+
     }
 
     public static Maybe<String> sanitize(List<String> err, Location loc, String value) {
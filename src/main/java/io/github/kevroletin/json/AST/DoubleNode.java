@@ -1,16 +1,48 @@
 package io.github.kevroletin.json.AST;
 
-import java.util.Objects;
-
+/** Floating point number kept as a primitive. Original text is kept only
+ * when requested explicitly or when the value is not finite (like 1e400),
+ * otherwise the number is printed as Double.toString does. Infinity and NaN
+ * are not valid json, so they can't be created without text. Nodes are
+ * compared by value.
+ */
 public class DoubleNode implements INode {
-    final private String value;
+    final private double value;
+
+    // Original text or null
+    final private String text;
+
+    public DoubleNode(double value) {
+        if (!Double.isFinite(value)) {
+            throw new RuntimeException("Json can't represent " + value);
+        }
+        this.value = value;
+        this.text = null;
+    }
 
-    public DoubleNode(String value) {
-        assert(value != null);
+    /** Keeps both value and its original text. */
+    public DoubleNode(double value, String text) {
+        assert(text != null);
         this.value = value;
+        this.text = text;
+    }
+
+    /** Throws NumberFormatException if the text is not a number. */
+    public DoubleNode(String text) {
+        assert(text != null);
+        this.value = Double.parseDouble(text);
+        if (!Double.isFinite(value) && (text.contains("Infinity") || text.contains("NaN"))) {
+            throw new NumberFormatException("Json can't represent " + text);
+        }
+        this.text = text;
     }
 
+    /** Returns text of the number. */
     public String get() {
+        return text != null ? text : String.valueOf(value);
+    }
+
+    public double doubleValue() {
         return value;
     }
 
@@ -21,23 +53,27 @@ public class DoubleNode implements INode {
 
     @Override
     public Object getUnsafe() {
-        return value;
+        return get();
     }
 
     @Override
     public void toJson(StringBuffer res) {
-        res.append(value);
+        if (text != null) {
+            res.append(text);
+        } else {
+            res.append(value);
+        }
     }
 
     @Override
     public String toString() {
-        return "DoubleNode{" + "value=" + value + '}';
+        return "DoubleNode{" + "value=" + get() + '}';
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
-        hash = 79 * hash + Objects.hashCode(this.value);
+        hash = 79 * hash + Double.hashCode(this.value);
         return hash;
     }
 
@@ -53,10 +89,7 @@ public class DoubleNode implements INode {
             return false;
         }
         final DoubleNode other = (DoubleNode) obj;
-        if (!Objects.equals(this.value, other.value)) {
-            return false;
-        }
-        return true;
+        return Double.compare(this.value, other.value) == 0;
     }
 
 }
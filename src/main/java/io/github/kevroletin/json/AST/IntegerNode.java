@@ -2,15 +2,58 @@ package io.github.kevroletin.json.AST;
 
 import java.util.Objects;
 
+/** Integer number. Numbers which fit into long are kept as a primitive,
+ * text is kept only for bigger numbers or when requested explicitly.
+ */
 public class IntegerNode implements INode {
-    final private String value;
+    final private long value;
 
-    public IntegerNode(String value) {
-        assert(value != null);
+    // false if the number doesn't fit into long, text is the only value then
+    final private boolean fitsLong;
+
+    // Original text or null
+    final private String text;
+
+    public IntegerNode(long value) {
+        this.value = value;
+        this.fitsLong = true;
+        this.text = null;
+    }
+
+    /** Keeps both value and its original text. */
+    public IntegerNode(long value, String text) {
+        assert(text != null);
         this.value = value;
+        this.fitsLong = true;
+        this.text = text;
+    }
+
+    public IntegerNode(String text) {
+        assert(text != null);
+        long v = 0;
+        boolean fits;
+        try {
+            v = Long.parseLong(text);
+            fits = true;
+        } catch (NumberFormatException ex) {
+            fits = false;
+        }
+        this.value = v;
+        this.fitsLong = fits;
+        this.text = text;
     }
 
+    /** Returns text of the number. */
     public String get() {
+        return text != null ? text : String.valueOf(value);
+    }
+
+    public boolean fitsLong() {
+        return fitsLong;
+    }
+
+    /** Value of the number, valid only if fitsLong returns true. */
+    public long longValue() {
         return value;
     }
 
@@ -21,23 +64,27 @@ public class IntegerNode implements INode {
 
     @Override
     public Object getUnsafe() {
-        return value;
+        return get();
     }
 
     @Override
     public void toJson(StringBuffer res) {
-        res.append(value);
+        if (text != null) {
+            res.append(text);
+        } else {
+            res.append(value);
+        }
     }
 
     @Override
     public String toString() {
-        return "IntegerNode{" + "value=" + value + '}';
+        return "IntegerNode{" + "value=" + get() + '}';
     }
 
     @Override
     public int hashCode() {
         int hash = 3;
-        hash = 97 * hash + Objects.hashCode(this.value);
+        hash = 97 * hash + (fitsLong ? Long.hashCode(value) : Objects.hashCode(this.text));
         return hash;
     }
 
@@ -53,10 +100,13 @@ public class IntegerNode implements INode {
             return false;
         }
         final IntegerNode other = (IntegerNode) obj;
-        if (!Objects.equals(this.value, other.value)) {
+        if (this.fitsLong != other.fitsLong) {
             return false;
         }
-        return true;
+        if (fitsLong) {
+            return this.value == other.value;
+        }
+        return Objects.equals(this.text, other.text);
     }
 
 }
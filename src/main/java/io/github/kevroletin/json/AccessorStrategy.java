@@ -0,0 +1,28 @@
+package io.github.kevroletin.json;
+
+/** How Serializer and Deserializer read and write fields and create
+ * objects.
+ */
+public enum AccessorStrategy {
+    /** Field.get, Field.set and Constructor.newInstance. */
+    REFLECTION,
+
+    /** Method handles created once per field and constructor. They skip
+     * access checks on every call and can be inlined by JIT. Falls back to
+     * reflection if a handle can't be created.
+     */
+    METHOD_HANDLES,
+
+    /** Binder class generated at runtime for each class. It accesses fields
+     * directly and reads and writes Integer, Double, String and Boolean
+     * fields inline. Used by streaming Serializer and Deserializer for public
+     * classes with public fields when a java compiler is available; falls
+     * back to METHOD_HANDLES otherwise.
+     *
+     * It's opt-in and never chosen by default: binders are compiled with
+     * javax.tools, which needs a full JDK and the library on a file class
+     * path, and the first use of each class is slow. Fallbacks are logged to
+     * the io.github.kevroletin.json.BinderGenerator logger.
+     */
+    GENERATED
+}
@@ -0,0 +1,415 @@
+package io.github.kevroletin.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/** Generates GeneratedBinder for a class on its first use.
+ *
+ * Java source of the binder is compiled in memory with the system java
+ * compiler and loaded by its own class loader, so no build step is needed
+ * and binders are unloaded together with their classes. Generated code
+ * accesses fields directly, so only public classes with a public default
+ * constructor and public non-final fields are supported. For other classes,
+ * or if the compiler is not available (JRE) or fails, null is returned and
+ * callers fall back to accessors. The reason of a fallback is logged to the
+ * logger of this class: unsupported classes at FINE level, a missing
+ * compiler (once) and failures at WARNING level.
+ */
+final class BinderGenerator {
+
+    private static final String PACKAGE = "io.github.kevroletin.json.generated";
+
+    private static final Logger LOG = Logger.getLogger(BinderGenerator.class.getName());
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final AtomicBoolean NO_COMPILER_LOGGED = new AtomicBoolean();
+
+    /** Generated binder or the reason why there is none. Also caches
+     * failures in ClassValue.
+     */
+    static final class Holder {
+        final GeneratedBinder binder;
+
+        final String fallback;
+
+        private Holder(GeneratedBinder binder, String fallback) {
+            this.binder = binder;
+            this.fallback = fallback;
+        }
+    }
+
+    private static final ClassValue<Holder> BINDERS = new ClassValue<Holder>() {
+        @Override
+        protected Holder computeValue(Class<?> cls) {
+            return generate(cls, ToolProvider.getSystemJavaCompiler());
+        }
+    };
+
+    private BinderGenerator() {}
+
+    /** Returns binder for the class or null if it can't be generated. */
+    static GeneratedBinder of(Class<?> cls) {
+        return BINDERS.get(cls).binder;
+    }
+
+    /** Returns why there is no binder for the class or null if there is one. */
+    static String fallbackReason(Class<?> cls) {
+        return BINDERS.get(cls).fallback;
+    }
+
+    /** Generates binder with the given compiler, null means no compiler. */
+    static Holder generate(Class<?> cls, JavaCompiler compiler) {
+        try {
+            return compile(cls, compiler);
+        } catch (Exception | LinkageError e) {
+            LOG.log(Level.WARNING, "Failed to generate binder for " + cls.getName() + ", using accessors", e);
+            return new Holder(null, e.toString());
+        }
+    }
+
+    private static Holder fallback(Class<?> cls, Level level, String reason) {
+        if (LOG.isLoggable(level)) {
+            LOG.log(level, "No binder for {0}: {1}", new Object[] {cls.getName(), reason});
+        }
+        return new Holder(null, reason);
+    }
+
+    // Scalars which are read and written inline
+    static boolean isInlined(Class<?> cls) {
+        return cls == int.class || cls == Integer.class
+            || cls == double.class || cls == Double.class
+            || cls == boolean.class || cls == Boolean.class
+            || cls == String.class;
+    }
+
+    private static boolean isSupported(Class<?> cls, BindingPlan plan, SerializationPlan serPlan) {
+        if (!isAccessible(cls) || cls.isInterface() || cls.isArray()
+            || Modifier.isAbstract(cls.getModifiers())
+            || (cls.getEnclosingClass() != null && !Modifier.isStatic(cls.getModifiers())))
+        {
+            return false;
+        }
+        Constructor<?> ctor = plan.constructor;
+        if (ctor == null || !Modifier.isPublic(ctor.getModifiers()) || ctor.getExceptionTypes().length > 0) {
+            return false;
+        }
+        // Serializer should see the same fields in the same order
+        if (serPlan.fields.length != plan.fields.length) {
+            return false;
+        }
+        for (int i = 0; i < plan.fields.length; ++i) {
+            BindingPlan.FieldBinding f = plan.fields[i];
+            int mod = f.field.getModifiers();
+            if (!Modifier.isPublic(mod) || Modifier.isFinal(mod) || Modifier.isStatic(mod)
+                || f.hasSanitizer
+                || !isAccessible(f.field.getDeclaringClass())
+                || !isAccessible(f.field.getType())
+                || (i > 0 && plan.fields[i - 1].name.equals(f.name))
+                || !serPlan.fields[i].field.equals(f.field))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> cls) {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls.isPrimitive()) {
+            return true;
+        }
+        if (!Modifier.isPublic(cls.getModifiers()) || cls.getCanonicalName() == null) {
+            return false;
+        }
+        return cls.getEnclosingClass() == null || isAccessible(cls.getEnclosingClass());
+    }
+
+    private static Holder compile(Class<?> cls, JavaCompiler compiler) throws Exception {
+        if (compiler == null) {
+            String reason = "no system java compiler, running on JRE?";
+            return fallback(cls, NO_COMPILER_LOGGED.compareAndSet(false, true) ? Level.WARNING : Level.FINE, reason);
+        }
+        BindingPlan plan = BindingPlan.of(cls);
+        if (!isSupported(cls, plan, SerializationPlan.of(cls))) {
+            return fallback(cls, Level.FINE, "class or its fields are not public or not supported");
+        }
+        ClassLoader parent = cls.getClassLoader();
+        if (parent == null || Class.forName(GeneratedBinder.class.getName(), false, parent) != GeneratedBinder.class) {
+            return fallback(cls, Level.FINE, "class loader doesn't see this library");
+        }
+
+        String simpleName = "Binder" + COUNTER.incrementAndGet();
+        String source = source(cls, simpleName, plan.fields);
+
+        MemoryFileManager fm = new MemoryFileManager(compiler.getStandardFileManager(null, null, null));
+        JavaFileObject src = new SimpleJavaFileObject(
+            URI.create("string:///" + simpleName + JavaFileObject.Kind.SOURCE.extension),
+            JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Boolean ok = compiler.getTask(
+            null, fm, diagnostics, Arrays.asList("-classpath", classPath(cls, plan), "-nowarn", "-g:none"),
+            null, Collections.singletonList(src)).call();
+        if (!ok || fm.bytes == null) {
+            String reason = "compilation failed";
+            for (Diagnostic<? extends JavaFileObject> x: diagnostics.getDiagnostics()) {
+                if (x.getKind() == Diagnostic.Kind.ERROR) {
+                    reason += ": " + x.getMessage(null);
+                    break;
+                }
+            }
+            return fallback(cls, Level.WARNING, reason);
+        }
+
+        byte[] bytes = fm.bytes.toByteArray();
+        String name = PACKAGE + "." + simpleName;
+        ClassLoader loader = new ClassLoader(parent) {
+            @Override
+            protected Class<?> findClass(String n) throws ClassNotFoundException {
+                if (!n.equals(name)) {
+                    throw new ClassNotFoundException(n);
+                }
+                return defineClass(n, bytes, 0, bytes.length);
+            }
+        };
+        Field[] fields = new Field[plan.fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i] = plan.fields[i].field;
+        }
+        GeneratedBinder binder = (GeneratedBinder) loader.loadClass(name)
+            .getConstructor(Field[].class)
+            .newInstance((Object) fields);
+        return new Holder(binder, null);
+    }
+
+    // Locations of the library, the class and types of its fields
+    private static String classPath(Class<?> cls, BindingPlan plan) throws Exception {
+        Set<String> paths = new LinkedHashSet<>();
+        addLocation(paths, GeneratedBinder.class);
+        addLocation(paths, cls);
+        for (BindingPlan.FieldBinding f: plan.fields) {
+            addLocation(paths, f.field.getType());
+            addLocation(paths, f.field.getDeclaringClass());
+        }
+        String sys = System.getProperty("java.class.path");
+        if (sys != null && !sys.isEmpty()) {
+            paths.add(sys);
+        }
+        return String.join(File.pathSeparator, paths);
+    }
+
+    private static void addLocation(Set<String> paths, Class<?> cls) throws Exception {
+        while (cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        CodeSource src = cls.isPrimitive() || cls.getProtectionDomain() == null
+            ? null
+            : cls.getProtectionDomain().getCodeSource();
+        if (src != null && src.getLocation() != null && "file".equals(src.getLocation().getProtocol())) {
+            paths.add(Paths.get(src.getLocation().toURI()).toString());
+        }
+    }
+
+    private static String source(Class<?> cls, String simpleName, BindingPlan.FieldBinding[] fields) {
+        String target = cls.getCanonicalName();
+        StringBuilder s = new StringBuilder();
+        s.append("package ").append(PACKAGE).append(";\n\n")
+            .append("import io.github.kevroletin.json.*;\n")
+            .append("import io.github.kevroletin.json.exceptions.*;\n\n")
+            .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+            .append("public final class ").append(simpleName).append(" extends GeneratedBinder {\n")
+            .append("    public ").append(simpleName).append("(java.lang.reflect.Field[] fields) {\n")
+            .append("        super(fields);\n")
+            .append("    }\n\n")
+            .append("    public Object newInstance() {\n")
+            .append("        return new ").append(target).append("();\n")
+            .append("    }\n\n");
+
+        s.append("    public void read(int idx, Object obj, Deserializer d, java.util.List<String> err, ")
+            .append("Location loc, JsonReader in) throws JsonParsingException {\n")
+            .append("        ").append(target).append(" o = (").append(target).append(") obj;\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.length; ++i) {
+            String read = inlineRead(fields[i].field);
+            if (read != null) {
+                s.append("            case ").append(i).append(":\n").append(read)
+                    .append("                break;\n");
+            }
+        }
+        s.append("            default:\n")
+            .append("        }\n")
+            .append("        readSlow(idx, obj, d, err, loc, in);\n")
+            .append("    }\n\n");
+
+        s.append("    protected void assign(int idx, Object obj, Object value) {\n")
+            .append("        ").append(target).append(" o = (").append(target).append(") obj;\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.length; ++i) {
+            Class<?> type = fields[i].field.getType();
+            String cast = type.isPrimitive() ? boxed(type) : type.getCanonicalName();
+            s.append("            case ").append(i).append(": o.").append(fields[i].name)
+                .append(" = (").append(cast).append(") value; return;\n");
+        }
+        s.append("            default: throw new IllegalArgumentException(\"No field \" + idx);\n")
+            .append("        }\n")
+            .append("    }\n\n");
+
+        s.append("    public Object get(int idx, Object obj) {\n")
+            .append("        ").append(target).append(" o = (").append(target).append(") obj;\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.length; ++i) {
+            s.append("            case ").append(i).append(": return o.").append(fields[i].name).append(";\n");
+        }
+        s.append("            default: throw new IllegalArgumentException(\"No field \" + idx);\n")
+            .append("        }\n")
+            .append("    }\n\n");
+
+        s.append("    public boolean write(int idx, Object obj, JsonWriter out) throws SerializationException {\n")
+            .append("        ").append(target).append(" o = (").append(target).append(") obj;\n")
+            .append("        switch (idx) {\n");
+        for (int i = 0; i < fields.length; ++i) {
+            String write = inlineWrite(fields[i].field);
+            if (write != null) {
+                s.append("            case ").append(i).append(": {\n").append(write)
+                    .append("                return true;\n")
+                    .append("            }\n");
+            }
+        }
+        s.append("            default: return false;\n")
+            .append("        }\n")
+            .append("    }\n")
+            .append("}\n");
+        return s.toString();
+    }
+
+    private static String boxed(Class<?> primitive) {
+        if (primitive == int.class) return "Integer";
+        if (primitive == double.class) return "Double";
+        if (primitive == boolean.class) return "Boolean";
+        if (primitive == long.class) return "Long";
+        if (primitive == float.class) return "Float";
+        if (primitive == short.class) return "Short";
+        if (primitive == byte.class) return "Byte";
+        return "Character";
+    }
+
+    // Fast path for a token of the expected type, other tokens including
+    // null go through the adapter. The code returns after assignment.
+    private static String inlineRead(Field field) {
+        Class<?> t = field.getType();
+        String f = "o." + field.getName();
+        String i = "                ";
+        if (t == int.class || t == Integer.class) {
+            return i + "if (in.isLongNumber()) {\n"
+                + i + "    long v = in.nextLong();\n"
+                + i + "    if (v >= Integer.MIN_VALUE && v <= Integer.MAX_VALUE) {\n"
+                + i + "        " + f + " = (int) v;\n"
+                + i + "    } else {\n"
+                + i + "        intOutOfRange(d, err, loc, v);\n"
+                + i + "    }\n"
+                + i + "    return;\n"
+                + i + "}\n";
+        }
+        if (t == double.class || t == Double.class) {
+            return i + "if (in.peek() == JsonToken.NUMBER && !in.isIntegerNumber()) {\n"
+                + i + "    " + f + " = in.nextDouble();\n"
+                + i + "    return;\n"
+                + i + "}\n";
+        }
+        if (t == boolean.class || t == Boolean.class) {
+            return i + "if (in.peek() == JsonToken.BOOLEAN) {\n"
+                + i + "    " + f + " = in.nextBoolean();\n"
+                + i + "    return;\n"
+                + i + "}\n";
+        }
+        if (t == String.class) {
+            return i + "if (in.peek() == JsonToken.STRING) {\n"
+                + i + "    " + f + " = in.nextString();\n"
+                + i + "    return;\n"
+                + i + "}\n";
+        }
+        return null;
+    }
+
+    private static String inlineWrite(Field field) {
+        Class<?> t = field.getType();
+        String f = "o." + field.getName();
+        String i = "                ";
+        if (t == int.class) {
+            return i + "out.value((long) " + f + ");\n";
+        }
+        if (t == double.class || t == boolean.class) {
+            return i + "out.value(" + f + ");\n";
+        }
+        if (!isInlined(t)) {
+            return null;
+        }
+        String unbox = t == Integer.class ? "(long) v.intValue()" : "v";
+        if (t == Double.class) {
+            unbox = "v.doubleValue()";
+        } else if (t == Boolean.class) {
+            unbox = "v.booleanValue()";
+        }
+        return i + t.getCanonicalName() + " v = " + f + ";\n"
+            + i + "if (v == null) {\n"
+            + i + "    out.nullValue();\n"
+            + i + "} else {\n"
+            + i + "    out.value(" + unbox + ");\n"
+            + i + "}\n";
+    }
+
+    // Keeps compiled class in memory
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        ByteArrayOutputStream bytes;
+
+        MemoryFileManager(StandardJavaFileManager fm) {
+            super(fm);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(
+            JavaFileManager.Location location, String className, JavaFileObject.Kind kind, FileObject sibling)
+        {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    bytes = new ByteArrayOutputStream();
+                    return bytes;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.annotations.Sanitizer;
+import io.github.kevroletin.json.annotations.SanitizerFactory;
+import io.github.kevroletin.json.utils.TypeUtils;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.List;
+
+/** Reflection metadata which Deserializer needs to fill objects of a class.
+ *
+ * It is computed once per class and cached in ClassValue, so it doesn't
+ * prevent class unloading.
+ */
+class BindingPlan {
+
+    static class FieldBinding {
+        final Field field;
+
+        final String name;
+
+        final Type type;
+
+        final boolean hasSanitizer;
+
+        final Class<? extends SanitizerFactory> sanitizer;
+
+        // Created on demand for each AccessorStrategy
+        private final FieldAccessor[] accessors = new FieldAccessor[AccessorStrategy.values().length];
+
+        FieldBinding(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.type = field.getGenericType();
+            Sanitizer ann = field.getAnnotation(Sanitizer.class);
+            this.hasSanitizer = ann != null;
+            this.sanitizer = hasSanitizer ? ann.cls() : null;
+            try {
+                field.setAccessible(true);
+            } catch (RuntimeException e) {
+                // Field.set will fail and report an error
+            }
+        }
+
+        FieldAccessor accessor(AccessorStrategy strategy) {
+            FieldAccessor res = accessors[strategy.ordinal()];
+            if (res == null) {
+                // Racing threads create equivalent accessors
+                res = FieldAccessor.of(field, strategy);
+                accessors[strategy.ordinal()] = res;
+            }
+            return res;
+        }
+    }
+
+    private static final ClassValue<BindingPlan> PLANS = new ClassValue<BindingPlan>() {
+        @Override
+        protected BindingPlan computeValue(Class<?> cls) {
+            return new BindingPlan(cls);
+        }
+    };
+
+    static BindingPlan of(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    // null if there is no accessible default constructor
+    final Constructor<?> constructor;
+
+    private final Instantiator[] instantiators = new Instantiator[AccessorStrategy.values().length];
+
+    // Sorted by name
+    final FieldBinding[] fields;
+
+    // Names of fields, for JsonReader.selectName
+    final String[] names;
+
+    private BindingPlan(Class<?> cls) {
+        Constructor<?> ctor;
+        try {
+            ctor = TypeUtils.getDefaultConstructor(cls);
+        } catch (Exception e) {
+            ctor = null;
+        }
+        this.constructor = ctor;
+
+        List<Field> allFields = TypeUtils.getAllFields(cls);
+        Collections.sort(allFields, (a, b) -> a.getName().compareTo(b.getName()));
+        this.fields = new FieldBinding[allFields.size()];
+        this.names = new String[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i] = new FieldBinding(allFields.get(i));
+            names[i] = fields[i].name;
+        }
+    }
+
+    /** Returns null if there is no accessible default constructor. */
+    Instantiator instantiator(AccessorStrategy strategy) {
+        if (constructor == null) {
+            return null;
+        }
+        Instantiator res = instantiators[strategy.ordinal()];
+        if (res == null) {
+            res = Instantiator.of(constructor, strategy);
+            instantiators[strategy.ordinal()] = res;
+        }
+        return res;
+    }
+
+    /** Returns index of the first field with the given name or -1. There
+     * can be several fields with the same name if a subclass shadows a field.
+     */
+    int indexOf(String name) {
+        int lo = 0;
+        int hi = fields.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (fields[mid].name.compareTo(name) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo < fields.length && fields[lo].name.equals(name)) {
+            return lo;
+        }
+        return -1;
+    }
+}
@@ -1,45 +1,110 @@
 package io.github.kevroletin.json;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
 public class Config {
+    /** Unmodifiable copy of adapters, so Deserializer can cache lookups. */
     public final Map<Class, TypeAdapter> typeAdapters;
 
+    /** Values of json keys which the target class doesn't declare are
+     * skipped by matching brackets and quotes only, without validating their
+     * contents. Applies to binding from JsonReader.
+     */
+    public final boolean lenientSkip;
+
+    /** How fields are read and written and objects are created. */
+    public final AccessorStrategy accessorStrategy;
+
+    public static final int UNLIMITED_ERRORS = Integer.MAX_VALUE;
+
+    /** Deserialization stops when this many errors are collected. The
+     * result then has no value and the first errors of the full error list
+     * in the same order.
+     *
+     * Errors inside of an object are counted when the object is read to
+     * its end, because a repeated key may still replace them. So reading
+     * stops there, not at the error itself.
+     */
+    public final int maxErrors;
+
     public Config(Map<Class, TypeAdapter> typeAdapters) {
-        this.typeAdapters = typeAdapters;
+        this(typeAdapters, false, AccessorStrategy.REFLECTION);
+    }
+
+    public Config(Map<Class, TypeAdapter> typeAdapters, boolean lenientSkip,
+                  AccessorStrategy accessorStrategy)
+    {
+        this(typeAdapters, lenientSkip, accessorStrategy, UNLIMITED_ERRORS);
+    }
+
+    public Config(Map<Class, TypeAdapter> typeAdapters, boolean lenientSkip,
+                  AccessorStrategy accessorStrategy, int maxErrors)
+    {
+        if (accessorStrategy == null) {
+            throw new RuntimeException("accessorStrategy parameter shouldn't be null");
+        }
+        if (maxErrors < 1) {
+            throw new RuntimeException("maxErrors parameter should be positive");
+        }
+        this.typeAdapters = Collections.unmodifiableMap(new HashMap(typeAdapters));
+        this.lenientSkip = lenientSkip;
+        this.accessorStrategy = accessorStrategy;
+        this.maxErrors = maxErrors;
     }
 
     public Config() {
-        typeAdapters = new HashMap();
+        this(new HashMap());
     }
 
     public Config copy() {
-        return new Config(new HashMap(typeAdapters));
+        return new Config(typeAdapters, lenientSkip, accessorStrategy, maxErrors);
     }
 
     public Config withoutTypeAdapter(Class<?> cls) {
         Map<Class, TypeAdapter> newAdapters = new HashMap(typeAdapters);
         newAdapters.remove(cls);
-        return new Config(newAdapters);
+        return new Config(newAdapters, lenientSkip, accessorStrategy, maxErrors);
     }
 
     public Config withTypeAdapter(Class<?> cls, TypeAdapter<?> adapter) {
         Map<Class, TypeAdapter> newAdapters = new HashMap(typeAdapters);
         newAdapters.put(cls, adapter);
-        return new Config(newAdapters);
+        return new Config(newAdapters, lenientSkip, accessorStrategy, maxErrors);
+    }
+
+    public Config withLenientSkip(boolean lenientSkip) {
+        return new Config(typeAdapters, lenientSkip, accessorStrategy, maxErrors);
+    }
+
+    public Config withAccessorStrategy(AccessorStrategy accessorStrategy) {
+        return new Config(typeAdapters, lenientSkip, accessorStrategy, maxErrors);
+    }
+
+    public Config withMaxErrors(int maxErrors) {
+        return new Config(typeAdapters, lenientSkip, accessorStrategy, maxErrors);
+    }
+
+    /** Stops deserialization at the first error. */
+    public Config withFailFast(boolean failFast) {
+        return withMaxErrors(failFast ? 1 : UNLIMITED_ERRORS);
     }
 
     @Override
     public String toString() {
-        return "Config{" + "typeAdapters=" + typeAdapters + '}';
+        return "Config{" + "typeAdapters=" + typeAdapters + ", lenientSkip=" + lenientSkip
+            + ", accessorStrategy=" + accessorStrategy + ", maxErrors=" + maxErrors + '}';
     }
 
     @Override
     public int hashCode() {
         int hash = 7;
         hash = 23 * hash + Objects.hashCode(this.typeAdapters);
+        hash = 23 * hash + (this.lenientSkip ? 1 : 0);
+        hash = 23 * hash + Objects.hashCode(this.accessorStrategy);
+        hash = 23 * hash + this.maxErrors;
         return hash;
     }
 
@@ -55,6 +120,15 @@ public class Config {
             return false;
         }
         final Config other = (Config) obj;
+        if (this.lenientSkip != other.lenientSkip) {
+            return false;
+        }
+        if (this.accessorStrategy != other.accessorStrategy) {
+            return false;
+        }
+        if (this.maxErrors != other.maxErrors) {
+            return false;
+        }
         if (!Objects.equals(this.typeAdapters, other.typeAdapters)) {
             return false;
         }
@@ -2,32 +2,97 @@ package io.github.kevroletin.json;
 
 import io.github.kevroletin.json.utils.TypeUtils;
 import io.github.kevroletin.json.AST.ArrayNode;
+import io.github.kevroletin.json.AST.BooleanNode;
+import io.github.kevroletin.json.AST.DoubleNode;
 import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.IntegerNode;
+import io.github.kevroletin.json.AST.NullNode;
 import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.AST.StringNode;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.adapters.DefaultAdapters;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Map;
 import io.github.kevroletin.json.utils.Maybe;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.lang.reflect.Type;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import io.github.kevroletin.json.annotations.SanitizerFactory;
-import io.github.kevroletin.json.annotations.Sanitizer;
 
 public class Deserializer {
 
     final Config config;
 
+    // Generated binders read built-in scalars inline, so they can't be used
+    // if adapters of these scalars are overridden
+    private final boolean useBinders;
+
+    // How values of a type are deserialized: the class of the type and its
+    // adapter. Config can't change, so entries are never invalidated; a new
+    // Config gets a new Deserializer.
+    private static final class Handler {
+        final Class<?> cls;
+
+        // null for arrays and objects
+        final TypeAdapter adapter;
+
+        final boolean isArray;
+
+        Handler(Class<?> cls, TypeAdapter adapter, boolean isArray) {
+            this.cls = cls;
+            this.adapter = adapter;
+            this.isArray = isArray;
+        }
+    }
+
+    private final ConcurrentHashMap<Type, Handler> handlers = new ConcurrentHashMap<>();
+
+    // Sanitizers of a @Sanitizer factory. A sanitizer of a thread safe
+    // factory is shared, otherwise each thread creates its own one.
+    private static final class SanitizerHandler {
+        final SanitizerFactory factory;
+
+        // null if the factory is not thread safe
+        final ValueSanitizer shared;
+
+        final ThreadLocal<ValueSanitizer> local;
+
+        SanitizerHandler(SanitizerFactory factory, ValueSanitizer shared) {
+            this.factory = factory;
+            this.shared = shared;
+            this.local = shared == null ? new ThreadLocal<>() : null;
+        }
+
+        // null if the factory returned null
+        ValueSanitizer get() {
+            if (shared != null) {
+                return shared;
+            }
+            ValueSanitizer res = local.get();
+            if (res == null) {
+                res = factory.create();
+                local.set(res);
+            }
+            return res;
+        }
+    }
+
+    private final ConcurrentHashMap<Class<?>, SanitizerHandler> sanitizers = new ConcurrentHashMap<>();
+
     public Deserializer(Config config) {
         this.config = config;
+        boolean overridden = false;
+        for (Class cls: config.typeAdapters.keySet()) {
+            overridden |= BinderGenerator.isInlined(cls);
+        }
+        this.useBinders = config.accessorStrategy == AccessorStrategy.GENERATED && !overridden;
     }
 
     public Deserializer() {
-        config = new Config();
+        this(new Config());
     }
 
     public Deserializer withTypeAdapter(Class<?> cls, TypeAdapter<?> adapter) {
@@ -47,9 +112,7 @@ public class Deserializer {
     }
 
     public Result<?> deserialize(INode ast, Type type) {
-        List<String> err = new ArrayList();
-        Maybe res = deserialize(err, Location.empty(), ast, type);
-        return new Result(res, err);
+        return deserialize(Location.empty(), ast, type);
     }
 
     public <T> Result<T> deserialize(Location loc, INode ast, Class<T> cls) {
@@ -57,9 +120,13 @@ public class Deserializer {
     }
 
     public <T> Result<T> deserialize(Location loc, INode ast, Type type) {
-        List<String> err = new ArrayList();
-        Maybe res = deserialize(err, loc, ast, type);
-        return new Result(res, err);
+        ErrorList err = new ErrorList(config.maxErrors);
+        try {
+            Maybe res = deserialize(err, loc, ast, type);
+            return new Result(res, err);
+        } catch (ErrorList.LimitReached e) {
+            return new Result(false, null, err.truncate());
+        }
     }
 
     public <T> Maybe<T> deserialize(List<String> err, Location loc, INode ast, Class<T> cls) {
@@ -67,26 +134,100 @@ public class Deserializer {
     }
 
     public Maybe deserialize(List<String> err, Location loc, INode ast, Type type) {
-        Class cls = TypeUtils.getClassFromTypeNoThrow(err, loc, type);
-        TypeAdapter adapter = config.typeAdapters.get(cls);
-        if (adapter != null) {
-            return adapter.deserialize(this, err, loc, ast, type);
-        }
-        TypeAdapter defaultAdapter = DefaultAdapters.getMap().get(cls);
-        if (defaultAdapter != null) {
-            return defaultAdapter.deserialize(this, err, loc, ast, type);
+        Handler h = handler(err, loc, type);
+        if (h.adapter != null) {
+            return h.adapter.deserialize(this, err, loc, ast, type);
         }
         if (ast.isNull()) {
             return Maybe.just(null);
         }
-        if (TypeUtils.isArrayType(type)) {
+        if (h.isArray) {
             return deserializeArray(err, loc, ast, type);
         }
         return deserializeObject(err, loc, ast, type);
     }
 
+    public <T> Result<T> deserialize(JsonReader in, Class<T> cls) throws JsonParsingException {
+        return (Result<T>) deserialize(in, (Type)cls);
+    }
+
+    /** Deserializes the next value from the reader without building INode
+     * tree. Produces the same result and errors as the tree based version.
+     */
+    public Result<?> deserialize(JsonReader in, Type type) throws JsonParsingException {
+        return deserialize(Location.empty(), in, type);
+    }
+
+    /** Deserializes the next value with errors reported relative to loc.
+     *
+     * If Config.maxErrors errors are found, reading stops in the middle of
+     * the value and ErrorList.isTruncated is true for errors of the result.
+     */
+    public Result<?> deserialize(Location loc, JsonReader in, Type type) throws JsonParsingException {
+        ErrorList err = new ErrorList(config.maxErrors);
+        try {
+            Maybe res = deserialize(err, loc, in, type);
+            return new Result(res, err);
+        } catch (ErrorList.LimitReached e) {
+            return new Result(false, null, err.truncate());
+        }
+    }
+
+    public <T> Maybe<T> deserialize(List<String> err, Location loc, JsonReader in, Class<T> cls)
+        throws JsonParsingException
+    {
+        return (Maybe<T>) deserialize(err, loc, in, (Type)cls);
+    }
+
+    public Maybe deserialize(List<String> err, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        Handler h = handler(err, loc, type);
+        if (h.adapter != null) {
+            return h.adapter.deserialize(this, err, loc, in, type);
+        }
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Maybe.just(null);
+        }
+        if (h.isArray) {
+            return deserializeArray(err, loc, in, type);
+        }
+        return deserializeObject(err, loc, in, type);
+    }
+
+    private Handler handler(List<String> err, Location loc, Type type) {
+        Handler h = handlers.get(type);
+        if (h != null) {
+            return h;
+        }
+        Class cls = TypeUtils.getClassFromTypeNoThrow(err, loc, type);
+        TypeAdapter adapter = config.typeAdapters.get(cls);
+        if (adapter == null) {
+            adapter = DefaultAdapters.getMap().get(cls);
+        }
+        h = new Handler(cls, adapter, TypeUtils.isArrayType(type));
+        if (cls != null) {
+            // Failures are not cached, so their errors are reported every time
+            handlers.putIfAbsent(type, h);
+        }
+        return h;
+    }
+
+    /** Same as TypeUtils.getClassFromTypeNoThrow but resolved classes are
+     * cached.
+     */
+    public Class<?> getClassFromType(List<String> err, Location loc, Type type) {
+        return handler(err, loc, type).cls;
+    }
+
     public void pushError(List<String> err, Location loc, String frmt, Object... args) {
-        err.add(loc.toStringWith(frmt, args));
+        if (err instanceof ErrorList) {
+            // formatted when read
+            ((ErrorList) err).add(loc, frmt, args);
+        } else {
+            err.add(loc.toStringWith(frmt, args));
+        }
     }
 
     public boolean expectNode(List<String> err, Location loc, INode node, Class<?> expectedNodeCls) {
@@ -98,16 +239,68 @@ public class Deserializer {
         return true;
     }
 
+    /** Returns class of the node which JsonParser would build for the next
+     * token.
+     */
+    public Class<? extends INode> peekNodeClass(JsonReader in) throws JsonParsingException {
+        JsonToken t = in.peek();
+        switch (t) {
+            case BEGIN_OBJECT:
+                return ObjectNode.class;
+            case BEGIN_ARRAY:
+                return ArrayNode.class;
+            case STRING:
+                return StringNode.class;
+            case NUMBER:
+                return in.isIntegerNumber() ? IntegerNode.class : DoubleNode.class;
+            case BOOLEAN:
+                return BooleanNode.class;
+            case NULL:
+                return NullNode.class;
+            default:
+                throw new JsonParsingException(
+                    String.format("Failed to parse json: unexpected %s", t));
+        }
+    }
+
+    /** Streaming version of expectNode. Skips the value if it has wrong type.
+     */
+    public boolean expectNode(List<String> err, Location loc, JsonReader in, Class<?> expectedNodeCls)
+        throws JsonParsingException
+    {
+        Class<?> nodeCls = peekNodeClass(in);
+        if (!nodeCls.equals(expectedNodeCls)) {
+            pushError(err, loc, "Expecting node %s but got %s",
+                      expectedNodeCls.getName(), nodeCls.getName());
+            in.skipValue();
+            return false;
+        }
+        return true;
+    }
+
     public <T> T createEmptyInstance(List<String> err, Location loc, Class<T> cls) {
+        return (T) createEmptyInstance(err, loc, BindingPlan.of(cls), null, cls);
+    }
+
+    private Object createEmptyInstance(
+        List<String> err, Location loc, BindingPlan plan, GeneratedBinder binder, Class<?> cls)
+    {
         try {
-            return (T) TypeUtils.getDefaultConstructor(cls).newInstance();
+            if (binder != null) {
+                return binder.newInstance();
+            }
+            Instantiator instantiator = plan.instantiator(config.accessorStrategy);
+            if (instantiator != null) {
+                return instantiator.newInstance();
+            }
         } catch (Exception e) {
-            pushError(err, loc,
-                      "Failed to create new %s class instance. " +
-                      "Public default constructor is not implemented or not accesable.",
-                      cls.getName());
-            return null;
+            // fall through to the error
         }
+        pushError(err, loc,
+                  "Failed to create new %s class instance. " +
+                  "Public default constructor is not implemented or not accesable.",
+                  cls.getName());
+        return null;
     }
 
     public Map<String, INode> ensureNodeIsObject(List<String> err, Location loc, INode ast) {
@@ -126,8 +319,41 @@ public class Deserializer {
         return ((ArrayNode)ast).get();
     }
 
+    /** Streaming version of ensureNodeIsObject. Skips the value if it is not
+     * an object.
+     */
+    public boolean ensureNodeIsObject(List<String> err, Location loc, JsonReader in)
+        throws JsonParsingException
+    {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            pushError(err, loc, "Expected object but got %s", peekNodeClass(in).getName());
+            in.skipValue();
+            return false;
+        }
+        return true;
+    }
+
+    /** Streaming version of ensureNodeIsArray. Skips the value if it is not
+     * an array.
+     */
+    public boolean ensureNodeIsArray(List<String> err, Location loc, JsonReader in)
+        throws JsonParsingException
+    {
+        if (in.peek() != JsonToken.BEGIN_ARRAY) {
+            pushError(err, loc, "Expected array but got %s", peekNodeClass(in).getName());
+            in.skipValue();
+            return false;
+        }
+        return true;
+    }
+
+    private Maybe skipValue(JsonReader in) throws JsonParsingException {
+        in.skipValue();
+        return Maybe.nothing();
+    }
+
     private Maybe deserializeArray(List<String> err, Location arrLoc, INode ast, Type type) {
-        Class<?> arrCls = TypeUtils.getClassFromTypeNoThrow(err, arrLoc, type);
+        Class<?> arrCls = getClassFromType(err, arrLoc, type);
         if (arrCls == null) {
             return Maybe.nothing();
         }
@@ -135,7 +361,7 @@ public class Deserializer {
         if (elemType == null) {
             return Maybe.nothing();
         }
-        Class elemCls = TypeUtils.getClassFromTypeNoThrow(err, arrLoc, elemType);
+        Class elemCls = getClassFromType(err, arrLoc, elemType);
         if (elemCls == null) {
             return Maybe.nothing();
         }
@@ -166,23 +392,100 @@ public class Deserializer {
         return Maybe.just(res);
     }
 
-    private <T> Maybe<T> sanitize(
+    // Marks array elements which failed to deserialize
+    private static final Object UNSET = new Object();
+
+    private Maybe deserializeArray(List<String> err, Location arrLoc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        Class<?> arrCls = getClassFromType(err, arrLoc, type);
+        if (arrCls == null) {
+            return skipValue(in);
+        }
+        Type elemType = TypeUtils.getArrayElementType(err, arrLoc, type);
+        if (elemType == null) {
+            return skipValue(in);
+        }
+        Class elemCls = getClassFromType(err, arrLoc, elemType);
+        if (elemCls == null) {
+            return skipValue(in);
+        }
+        if (!ensureNodeIsArray(err, arrLoc, in)) {
+            return Maybe.nothing();
+        }
+
+        // Array size is unknown until the end of the input array, so values
+        // are collected into a list. Single element array is used to check
+        // that a value can be stored, so errors are reported in the same order
+        // as in the tree based version.
+        Object probe = Array.newInstance(elemCls, 1);
+        List<Object> values = new ArrayList();
+        in.beginArray();
+        for (int i = 0; in.hasNext(); ++i) {
+            Location valLoc = arrLoc.addIndex(i);
+            Maybe<?> val = deserialize(err, valLoc, in, elemType);
+            if (!val.isJust()) {
+                values.add(UNSET);
+                continue;
+            }
+            try {
+                Array.set(probe, 0, val.get());
+                values.add(val.get());
+            } catch (IllegalArgumentException e) {
+                pushError(err, valLoc,
+                          "Failed to set value: expected type %s but got %s",
+                          i,
+                          elemCls.getName(),
+                          val.get().getClass().getName());
+                values.add(UNSET);
+            }
+        }
+        in.endArray();
+
+        Object res = Array.newInstance(elemCls, values.size());
+        for (int i = 0; i < values.size(); ++i) {
+            Object val = values.get(i);
+            if (val != UNSET) {
+                Array.set(res, i, val);
+            }
+        }
+        return Maybe.just(res);
+    }
+
+    <T> Maybe<T> sanitize(
         List<String> err, Location loc, Class<? extends SanitizerFactory> factoryCls, T value)
     {
         if (factoryCls == null) {
             pushError(err, loc, "@Sanitizer.cls is null");
             return Maybe.nothing();
         }
-        SanitizerFactory<ValueSanitizer<T>> factory;
-        try {
-            Constructor<?> ctor = TypeUtils.getDefaultConstructor(factoryCls);
-            factory = (SanitizerFactory) ctor.newInstance();
-        } catch (Exception ex) {
-            pushError(err, loc, "Failed to instantiate Sanitizer usring %s: %s",
-                      factoryCls.getName(), ex.getMessage());
-            return Maybe.nothing();
+        SanitizerHandler h = sanitizers.get(factoryCls);
+        if (h == null) {
+            SanitizerFactory<ValueSanitizer<T>> factory;
+            try {
+                Constructor<?> ctor = TypeUtils.getDefaultConstructor(factoryCls);
+                factory = (SanitizerFactory) ctor.newInstance();
+            } catch (Exception ex) {
+                pushError(err, loc, "Failed to instantiate Sanitizer usring %s: %s",
+                          factoryCls.getName(), ex.getMessage());
+                return Maybe.nothing();
+            }
+            ValueSanitizer<T> shared = null;
+            if (factory.isThreadSafe()) {
+                shared = factory.create();
+                if (shared == null) {
+                    pushError(err, loc, "Sanitizer factory returned null");
+                    return Maybe.nothing();
+                }
+            }
+            // Failures are not cached, like failures of handlers
+            h = new SanitizerHandler(factory, shared);
+            SanitizerHandler prev = sanitizers.putIfAbsent(factoryCls, h);
+            if (prev != null) {
+                h = prev;
+            }
         }
-        ValueSanitizer<T> sanitizer = factory.create();
+        ValueSanitizer<T> sanitizer = h.get();
         if (sanitizer == null) {
             pushError(err, loc, "Sanitizer factory returned null");
             return Maybe.nothing();
@@ -191,41 +494,56 @@ public class Deserializer {
     }
 
     private void deserealizeAndAssignField(
-        List<String> err, Location fieldLoc, Object resObj, Field field, INode val)
+        List<String> err, Location fieldLoc, Object resObj, BindingPlan.FieldBinding field, INode val)
     {
-        String name = field.getName();
         // TODO: how about configurable nullable fields?
         if (val == null) {
-            pushError(err, fieldLoc, "%s field is missed in serialized AST", name);
+            pushError(err, fieldLoc, "%s field is missed in serialized AST", field.name);
+            return;
+        }
+
+        Maybe<?> value = deserialize(err, fieldLoc, val, field.type);
+        if (value.isNothing()) {
             return;
         }
+        assignField(err, fieldLoc, resObj, field, value);
+    }
 
-        Maybe<?> value = deserialize(err, fieldLoc, val, field.getGenericType());
+    private void deserealizeAndAssignField(
+        List<String> err, Location fieldLoc, Object resObj, BindingPlan.FieldBinding field, JsonReader in)
+        throws JsonParsingException
+    {
+        Maybe<?> value = deserialize(err, fieldLoc, in, field.type);
         if (value.isNothing()) {
             return;
         }
-        Sanitizer ann = field.getAnnotation(Sanitizer.class);
-        if (ann != null) {
-            value = sanitize(err, fieldLoc, ann.cls(), value.get());
+        assignField(err, fieldLoc, resObj, field, value);
+    }
+
+    private void assignField(
+        List<String> err, Location fieldLoc, Object resObj, BindingPlan.FieldBinding field, Maybe<?> value)
+    {
+        if (field.hasSanitizer) {
+            value = sanitize(err, fieldLoc, field.sanitizer, value.get());
             if (value.isNothing()) {
                 return;
             }
         }
 
         try {
-            field.setAccessible(true);
-            field.set(resObj, value.get());
+            field.accessor(config.accessorStrategy).set(resObj, value.get());
         } catch (IllegalAccessException | IllegalArgumentException e) {
             pushError(err, fieldLoc, "Failed to set value: %s", e.getMessage());
         }
     }
 
     private Maybe deserializeObject(List<String> err, Location objLoc, INode ast, Type type) {
-        Class<?> objCls = TypeUtils.getClassFromTypeNoThrow(err, objLoc, type);
+        Class<?> objCls = getClassFromType(err, objLoc, type);
         if (objCls == null) {
             return Maybe.nothing();
         }
-        Object resObj = createEmptyInstance(err, objLoc, objCls);
+        BindingPlan plan = BindingPlan.of(objCls);
+        Object resObj = createEmptyInstance(err, objLoc, plan, null, objCls);
         if (resObj == null) {
             return Maybe.nothing();
         }
@@ -234,18 +552,115 @@ public class Deserializer {
             return Maybe.nothing();
         }
 
-        List<Field> allFields = TypeUtils.getAllFields(objCls);
-        Collections.sort(allFields, (a, b) -> a.getName().compareTo(b.getName()));
-
-        for (Field field: allFields) {
-            String name = field.getName();
-            INode val = allValues.get(name);
-            Location fieldLoc = objLoc.addField(name);
+        for (BindingPlan.FieldBinding field: plan.fields) {
+            INode val = allValues.get(field.name);
+            Location fieldLoc = objLoc.addField(field.name);
             deserealizeAndAssignField(err, fieldLoc, resObj, field, val);
         }
         return Maybe.just(resObj);
     }
 
+    private Maybe deserializeObject(List<String> err, Location objLoc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        Class<?> objCls = getClassFromType(err, objLoc, type);
+        if (objCls == null) {
+            return skipValue(in);
+        }
+        BindingPlan plan = BindingPlan.of(objCls);
+        GeneratedBinder binder = useBinders ? BinderGenerator.of(objCls) : null;
+        Object resObj = createEmptyInstance(err, objLoc, plan, binder, objCls);
+        if (resObj == null) {
+            return skipValue(in);
+        }
+        if (!ensureNodeIsObject(err, objLoc, in)) {
+            return Maybe.nothing();
+        }
+
+        BindingPlan.FieldBinding[] fields = plan.fields;
+        readFields(err, objLoc, in, plan.names, (idx, fieldErr, ast) -> {
+            Location fieldLoc = objLoc.addField(fields[idx].name);
+            if (binder != null) {
+                binder.read(idx, resObj, this, fieldErr, fieldLoc, in);
+            } else if (ast == null) {
+                deserealizeAndAssignField(fieldErr, fieldLoc, resObj, fields[idx], in);
+            } else {
+                deserealizeAndAssignField(fieldErr, fieldLoc, resObj, fields[idx], ast);
+            }
+        });
+        return Maybe.just(resObj);
+    }
+
+    /** Reads a member of an object for readFields. */
+    @FunctionalInterface
+    interface FieldReader {
+        /** Reads field idx from the JsonReader or from ast if it is not
+         * null. Errors go to err.
+         */
+        void read(int idx, List<String> err, INode ast) throws JsonParsingException;
+    }
+
+    /** Reads members of an object whose names are in sorted names. Same
+     * names may repeat (fields shadowed in a subclass), then the value is
+     * read into a tree once and passed to each of them.
+     *
+     * Fields come in the input order but errors should be reported in the
+     * order of sorted field names (like in the tree based version), so
+     * errors are buffered per field. The last occurrence of a duplicated key
+     * wins. Unknown members are skipped, missed ones are reported.
+     */
+    void readFields(List<String> err, Location objLoc, JsonReader in, String[] names, FieldReader reader)
+        throws JsonParsingException
+    {
+        int n = names.length;
+        boolean[] seen = new boolean[n];
+        List<String>[] fieldErrors = null;
+        List<String> scratch = ErrorList.buffer(err);
+
+        in.beginObject();
+        while (in.hasNext()) {
+            // Unknown names are matched without creating strings
+            int first = in.selectName(names);
+            if (first < 0) {
+                if (config.lenientSkip) {
+                    in.skipValueUnchecked();
+                } else {
+                    in.skipValue();
+                }
+                continue;
+            }
+            int end = first + 1;
+            while (end < n && names[end].equals(names[first])) {
+                ++end;
+            }
+            INode ast = (end - first > 1) ? JsonParser.parse(in) : null;
+            for (int idx = first; idx < end; ++idx) {
+                seen[idx] = true;
+                reader.read(idx, scratch, ast);
+                if (fieldErrors != null) {
+                    // the last occurrence of a duplicated key wins
+                    fieldErrors[idx] = null;
+                }
+                if (!scratch.isEmpty()) {
+                    if (fieldErrors == null) {
+                        fieldErrors = new List[n];
+                    }
+                    fieldErrors[idx] = scratch;
+                    scratch = ErrorList.buffer(err);
+                }
+            }
+        }
+        in.endObject();
+
+        for (int i = 0; i < n; ++i) {
+            if (!seen[i]) {
+                pushError(err, objLoc.addField(names[i]), "%s field is missed in serialized AST", names[i]);
+            } else if (fieldErrors != null && fieldErrors[i] != null) {
+                err.addAll(fieldErrors[i]);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "Deserializer{" + "config=" + config + '}';
@@ -0,0 +1,171 @@
+package io.github.kevroletin.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/** List of deserialization errors which are formatted only when read.
+ *
+ * Deserializer.pushError stores a location, a format and arguments instead
+ * of a string. A list can be limited to Config.maxErrors errors: adding the
+ * last allowed error stops deserialization. Buffers which adapters use to
+ * reorder errors are not limited: their errors may still be dropped (e.g.
+ * for a repeated key the last occurrence wins), so they count only when
+ * they are moved into the limited list.
+ *
+ * Arguments which may change later are converted into strings when an error
+ * is added. Reading doesn't modify the list, so a list which is no longer
+ * written can be read from any thread; writing must stay in one thread.
+ */
+public final class ErrorList extends AbstractList<String> {
+
+    /** Thrown when the limit is reached, caught by Deserializer. */
+    static final class LimitReached extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LimitReached() {
+            super("Too many errors", null, false, false);
+        }
+    }
+
+    private static final class Entry {
+        final Location loc;
+
+        final String frmt;
+
+        final Object[] args;
+
+        Entry(Location loc, String frmt, Object[] args) {
+            this.loc = loc;
+            this.frmt = frmt;
+            this.args = args;
+        }
+    }
+
+    // Strings and entries
+    private final List<Object> items = new ArrayList();
+
+    private final int maxErrors;
+
+    private final boolean truncated;
+
+    public ErrorList() {
+        this(Config.UNLIMITED_ERRORS, false);
+    }
+
+    ErrorList(int maxErrors) {
+        this(maxErrors, false);
+    }
+
+    private ErrorList(int maxErrors, boolean truncated) {
+        this.maxErrors = maxErrors;
+        this.truncated = truncated;
+    }
+
+    /** Returns a list for errors which will be added to err later. */
+    public static List<String> buffer(List<String> err) {
+        if (err instanceof ErrorList) {
+            return new ErrorList();
+        }
+        return new ArrayList();
+    }
+
+    /** True if deserialization stopped at the errors limit, so the input
+     * wasn't read to the end of the value.
+     */
+    public static boolean isTruncated(List<String> err) {
+        return err instanceof ErrorList && ((ErrorList) err).truncated;
+    }
+
+    // The first maxErrors errors, in the same order as without the limit
+    ErrorList truncate() {
+        ErrorList res = new ErrorList(Config.UNLIMITED_ERRORS, true);
+        res.items.addAll(items.subList(0, Math.min(items.size(), maxErrors)));
+        return res;
+    }
+
+    void add(Location loc, String frmt, Object[] args) {
+        items.add(new Entry(loc, frmt, snapshot(args)));
+        checkLimit();
+    }
+
+    // Replaces mutable arguments with their strings, copies args if needed
+    private static Object[] snapshot(Object[] args) {
+        Object[] res = args;
+        for (int i = 0; i < args.length; ++i) {
+            Object x = args[i];
+            if (x != null && !isImmutable(x)) {
+                if (res == args) {
+                    res = args.clone();
+                }
+                res[i] = String.valueOf(x);
+            }
+        }
+        return res;
+    }
+
+    private static boolean isImmutable(Object x) {
+        return x instanceof String || x instanceof Integer || x instanceof Long
+            || x instanceof Double || x instanceof Float || x instanceof Short
+            || x instanceof Byte || x instanceof Boolean || x instanceof Character
+            || x instanceof BigInteger || x instanceof BigDecimal || x instanceof Class;
+    }
+
+    private void checkLimit() {
+        if (items.size() >= maxErrors) {
+            throw new LimitReached();
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        Object item = items.get(index);
+        if (item instanceof Entry) {
+            Entry e = (Entry) item;
+            return e.loc.toStringWith(e.frmt, e.args);
+        }
+        return (String) item;
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public void add(int index, String element) {
+        items.add(index, element);
+        ++modCount;
+        checkLimit();
+    }
+
+    /** Moves errors of a buffer without formatting them. */
+    @Override
+    public boolean addAll(Collection<? extends String> c) {
+        if (c instanceof ErrorList) {
+            ++modCount;
+            boolean res = items.addAll(((ErrorList) c).items);
+            checkLimit();
+            return res;
+        }
+        return super.addAll(c);
+    }
+
+    @Override
+    public String set(int index, String element) {
+        String res = get(index);
+        items.set(index, element);
+        return res;
+    }
+
+    @Override
+    public String remove(int index) {
+        String res = get(index);
+        items.remove(index);
+        ++modCount;
+        return res;
+    }
+}
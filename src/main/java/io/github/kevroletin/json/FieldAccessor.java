@@ -0,0 +1,123 @@
+package io.github.kevroletin.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/** Reads and writes a field of objects using one of AccessorStrategy.
+ *
+ * Errors are reported like Field does: IllegalAccessException if the field
+ * is not accessible and IllegalArgumentException for a wrong object or
+ * value.
+ */
+abstract class FieldAccessor {
+
+    abstract Object get(Object obj) throws IllegalAccessException;
+
+    abstract void set(Object obj, Object value) throws IllegalAccessException;
+
+    static FieldAccessor of(Field field, AccessorStrategy strategy) {
+        if (strategy != AccessorStrategy.REFLECTION) {
+            MethodHandle getter = unreflect(field, false);
+            if (getter != null) {
+                return new Handles(field, getter, unreflect(field, true));
+            }
+        }
+        return new Reflective(field);
+    }
+
+    // Handle with (Object)Object or (Object, Object)void type or null if the
+    // access is denied
+    private static MethodHandle unreflect(Field field, boolean setter) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (setter) {
+                return lookup.unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            }
+            return lookup.unreflectGetter(field)
+                .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static class Reflective extends FieldAccessor {
+        private final Field field;
+
+        Reflective(Field field) {
+            this.field = field;
+        }
+
+        @Override
+        Object get(Object obj) throws IllegalAccessException {
+            return field.get(obj);
+        }
+
+        @Override
+        void set(Object obj, Object value) throws IllegalAccessException {
+            field.set(obj, value);
+        }
+    }
+
+    private static class Handles extends FieldAccessor {
+        private final Field field;
+
+        private final MethodHandle getter;
+
+        // null if only reflection can write the field
+        private final MethodHandle setter;
+
+        Handles(Field field, MethodHandle getter, MethodHandle setter) {
+            this.field = field;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        Object get(Object obj) throws IllegalAccessException {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (ClassCastException | NullPointerException e) {
+                throw wrongArgument(obj, e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        void set(Object obj, Object value) throws IllegalAccessException {
+            if (setter == null) {
+                field.set(obj, value);
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            } catch (ClassCastException | NullPointerException e) {
+                throw wrongArgument(value, e);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private IllegalArgumentException wrongArgument(Object value, RuntimeException cause) {
+            return new IllegalArgumentException(wrongValue(field, value), cause);
+        }
+    }
+
+    /** Message of Field.set for a value which can't be assigned to the
+     * field, so all strategies report the same error.
+     */
+    static String wrongValue(Field field, Object value) {
+        return String.format("Can not set %s field %s.%s to %s",
+                             field.getType().getName(),
+                             field.getDeclaringClass().getName(),
+                             field.getName(),
+                             value == null ? "null value" : value.getClass().getName());
+    }
+}
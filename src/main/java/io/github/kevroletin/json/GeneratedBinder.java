@@ -0,0 +1,74 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.Maybe;
+import java.lang.reflect.Field;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/** Base class of binders which are generated at runtime for
+ * AccessorStrategy.GENERATED.
+ *
+ * A binder reads and writes fields of one class directly, without
+ * reflection. Fields are addressed by their index in the sorted list of
+ * field names. Generated classes live in their own class loader, so this
+ * class is public; it's not intended to be used directly.
+ */
+public abstract class GeneratedBinder {
+
+    private final Field[] fields;
+
+    // Generic types of fields
+    private final Type[] types;
+
+    protected GeneratedBinder(Field[] fields) {
+        this.fields = fields;
+        this.types = new Type[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            types[i] = fields[i].getGenericType();
+        }
+    }
+
+    public abstract Object newInstance();
+
+    /** Reads value of a field and assigns it. Values of Integer, Double,
+     * String and Boolean fields (and their primitives) are read inline,
+     * anything else goes through Deserializer.
+     */
+    public abstract void read(int idx, Object obj, Deserializer d, List<String> err, Location loc, JsonReader in)
+        throws JsonParsingException;
+
+    public abstract Object get(int idx, Object obj);
+
+    /** Writes value of a scalar field. Returns false if the field is not a
+     * scalar, so it should be serialized from get.
+     */
+    public abstract boolean write(int idx, Object obj, JsonWriter out) throws SerializationException;
+
+    protected abstract void assign(int idx, Object obj, Object value);
+
+    /** Reads a value through Deserializer and assigns it. */
+    protected final void readSlow(int idx, Object obj, Deserializer d, List<String> err, Location loc, JsonReader in)
+        throws JsonParsingException
+    {
+        Maybe<?> value = d.deserialize(err, loc, in, types[idx]);
+        if (value.isNothing()) {
+            return;
+        }
+        try {
+            assign(idx, obj, value.get());
+        } catch (ClassCastException | NullPointerException e) {
+            d.pushError(err, loc, "Failed to set value: %s", FieldAccessor.wrongValue(fields[idx], value.get()));
+        }
+    }
+
+    /** Reports an integer out of int range like IntegerAdapter does. */
+    protected final void intOutOfRange(Deserializer d, List<String> err, Location loc, long value) {
+        try {
+            Integer.parseInt(String.valueOf(value));
+        } catch (NumberFormatException ex) {
+            d.pushError(err, loc, "Failed to parse Integer %s", ex.getMessage());
+        }
+    }
+}
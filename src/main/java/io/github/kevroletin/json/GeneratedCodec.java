@@ -0,0 +1,165 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.annotations.SanitizerFactory;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.Maybe;
+import io.github.kevroletin.json.utils.PrintingUtils;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/** Base class of codecs which the annotation processor generates for
+ * classes annotated with @JsonCodec.
+ *
+ * Codecs are found through ServiceLoader and used by Deserializer like
+ * default adapters and by streaming Serializer. Results and errors are the
+ * same as with reflection. Fields are addressed by their index in the
+ * sorted list of field names. Static fields are not bound.
+ */
+public abstract class GeneratedCodec<T> implements TypeAdapter<T> {
+
+    private final Class<T> type;
+
+    // Sorted
+    private final String[] names;
+
+    private final String[] escapedNames;
+
+    // Generic types of fields
+    private final Type[] types;
+
+    // null for fields without @Sanitizer
+    private final Class<? extends SanitizerFactory>[] sanitizers;
+
+    protected GeneratedCodec(Class<T> type, String[] names, Type[] types,
+                             Class<? extends SanitizerFactory>[] sanitizers)
+    {
+        this.type = type;
+        this.names = names;
+        this.types = types;
+        this.sanitizers = sanitizers;
+        this.escapedNames = new String[names.length];
+        for (int i = 0; i < names.length; ++i) {
+            escapedNames[i] = PrintingUtils.escapeString(names[i]);
+        }
+    }
+
+    public final Class<T> getType() {
+        return type;
+    }
+
+    protected abstract T newInstance() throws Exception;
+
+    protected abstract void assign(int idx, T obj, Object value);
+
+    protected abstract Object get(int idx, T obj);
+
+    /** Writes value of a scalar field. Returns false if the field is not a
+     * scalar, so it should be serialized from get.
+     */
+    protected abstract boolean write(int idx, T obj, JsonWriter out) throws SerializationException;
+
+    @Override
+    public Maybe<T> deserialize(Deserializer d, List<String> err, Location objLoc, INode ast, Type type) {
+        if (ast.isNull()) {
+            return Maybe.just(null);
+        }
+        T resObj = createInstance(d, err, objLoc);
+        if (resObj == null) {
+            return Maybe.nothing();
+        }
+        Map<String, INode> allValues = d.ensureNodeIsObject(err, objLoc, ast);
+        if (allValues == null) {
+            return Maybe.nothing();
+        }
+        for (int i = 0; i < names.length; ++i) {
+            INode val = allValues.get(names[i]);
+            Location fieldLoc = objLoc.addField(names[i]);
+            if (val == null) {
+                d.pushError(err, fieldLoc, "%s field is missed in serialized AST", names[i]);
+                continue;
+            }
+            assignField(d, err, fieldLoc, resObj, i, d.deserialize(err, fieldLoc, val, types[i]));
+        }
+        return Maybe.just(resObj);
+    }
+
+    @Override
+    public Maybe<T> deserialize(Deserializer d, List<String> err, Location objLoc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Maybe.just(null);
+        }
+        T resObj = createInstance(d, err, objLoc);
+        if (resObj == null) {
+            in.skipValue();
+            return Maybe.nothing();
+        }
+        if (!d.ensureNodeIsObject(err, objLoc, in)) {
+            return Maybe.nothing();
+        }
+
+        d.readFields(err, objLoc, in, names, (idx, fieldErr, ast) -> {
+            Location fieldLoc = objLoc.addField(names[idx]);
+            assignField(d, fieldErr, fieldLoc, resObj, idx, d.deserialize(fieldErr, fieldLoc, in, types[idx]));
+        });
+        return Maybe.just(resObj);
+    }
+
+    /** Writes the object like streaming Serializer does. Values of
+     * non-scalar fields are passed to nested.
+     */
+    void serialize(T obj, JsonWriter out, ValueWriter nested) throws SerializationException {
+        out.beginObject();
+        for (int i = 0; i < names.length; ++i) {
+            out.escapedName(escapedNames[i]);
+            if (!write(i, obj, out)) {
+                nested.write(get(i, obj));
+            }
+        }
+        out.endObject();
+    }
+
+    @FunctionalInterface
+    interface ValueWriter {
+        void write(Object value) throws SerializationException;
+    }
+
+    private T createInstance(Deserializer d, List<String> err, Location loc) {
+        try {
+            return newInstance();
+        } catch (Exception e) {
+            d.pushError(err, loc,
+                        "Failed to create new %s class instance. " +
+                        "Public default constructor is not implemented or not accesable.",
+                        type.getName());
+            return null;
+        }
+    }
+
+    private void assignField(Deserializer d, List<String> err, Location loc, T obj, int idx, Maybe<?> value) {
+        if (value.isNothing()) {
+            return;
+        }
+        if (sanitizers[idx] != null) {
+            value = d.sanitize(err, loc, sanitizers[idx], value.get());
+            if (value.isNothing()) {
+                return;
+            }
+        }
+        try {
+            assign(idx, obj, value.get());
+        } catch (ClassCastException | NullPointerException e) {
+            d.pushError(err, loc, "Failed to set value: %s", e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + "type=" + type.getName() + '}';
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.kevroletin.json;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/** Creates objects through a default constructor using one of
+ * AccessorStrategy.
+ */
+abstract class Instantiator {
+
+    abstract Object newInstance() throws Exception;
+
+    static Instantiator of(Constructor<?> ctor, AccessorStrategy strategy) {
+        if (strategy != AccessorStrategy.REFLECTION) {
+            try {
+                MethodHandle handle = MethodHandles.lookup().unreflectConstructor(ctor)
+                    .asType(MethodType.methodType(Object.class));
+                return new Handle(handle);
+            } catch (IllegalAccessException | RuntimeException e) {
+                // fall back to reflection
+            }
+        }
+        return new Reflective(ctor);
+    }
+
+    private static class Reflective extends Instantiator {
+        private final Constructor<?> ctor;
+
+        Reflective(Constructor<?> ctor) {
+            this.ctor = ctor;
+        }
+
+        @Override
+        Object newInstance() throws Exception {
+            return ctor.newInstance();
+        }
+    }
+
+    private static class Handle extends Instantiator {
+        private final MethodHandle handle;
+
+        Handle(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        Object newInstance() throws Exception {
+            try {
+                return (Object) handle.invokeExact();
+            } catch (Throwable e) {
+                // Same as Constructor.newInstance does
+                throw new InvocationTargetException(e);
+            }
+        }
+    }
+}
@@ -9,321 +9,160 @@ import io.github.kevroletin.json.AST.IntegerNode;
 import io.github.kevroletin.json.AST.NullNode;
 import io.github.kevroletin.json.AST.ObjectNode;
 import io.github.kevroletin.json.AST.StringNode;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
+/** Recursive descent parser which builds INode tree from JsonReader tokens.
+ *
+ * What to parse is decided by looking at the next token. There is no
+ * backtracking: exceptions are thrown only for malformed input.
+ */
 public class JsonParser {
 
     static public INode parse(String string) throws JsonParsingException {
-        JsonParser parser = new JsonParser(string);
-        INode res = parser.parseInternal();
-        parser.skipSpaces();
-        if (!parser.in.isEmpty()) {
-            throw new JsonParsingException("Trailing input");
-        }
-        return res;
-    }
-
-    static class StringInputSeq {
-        public class StateGuard {
-            final int oldState;
-
-            StateGuard() {
-                oldState = StringInputSeq.this.getState();
-            };
-
-            public void restore() {
-                StringInputSeq.this.restoreState(oldState);
-            }
-        }
-
-        final String data;
-        int pos;
-
-        public StringInputSeq(String data) {
-            this.data = data;
-            this.pos = 0;
-        }
-
-        public boolean isEmpty() {
-            return pos >= data.length();
-        }
-
-        public char pop() throws JsonParsingException {
-            char res = get();
-            ++pos;
-            return res;
-        }
-
-        public char get() throws JsonParsingException {
-            if (isEmpty()) {
-                throw new JsonParsingException("Unexcepted end of input");
-            }
-            return data.charAt(pos);
-        }
-
-        public void unpop(char c) {
-            assert(pos > 0 && data.charAt(pos) == c);
-            --pos;
-        }
-
-        @Override
-        public String toString() {
-            return "StringInputSource{" + "data=" + data + ", pos=" + pos + '}';
-        }
-
-        private int getState() {
-            return pos;
-        }
-
-        private void restoreState(int pos) {
-            assert(pos >= 0);
-            this.pos = pos;
-        }
-
-        public StateGuard savePoint() {
-            return new StateGuard();
-        }
-    }
-
-    @FunctionalInterface
-    public interface Parser<T> {
-        T apply() throws JsonParsingException;
-    }
-
-    private StringInputSeq in;
-
-    private JsonParser(String str) {
-        this.in = new StringInputSeq(str);
-    }
-
-    private void skipSpaces() throws JsonParsingException {
-        while (!in.isEmpty() && Character.isSpace(in.get())) {
-            in.pop();
-        }
-    }
-
-    private void expect(char expect) throws JsonParsingException {
-        char got = in.pop();
-        if (got != expect) {
-            throw new JsonParsingException(
-                String.format("Expected %c but got %c", expect, got));
-        }
+        return parseDocument(new JsonReader(string));
     }
 
-    private void expect(String expect) throws JsonParsingException {
-        for (char c: expect.toCharArray()) {
-            expect(c);
-        }
+    /** Parses json lazily: objects and arrays split their text into children
+     * only when accessed, and every child is parsed on its first access.
+     *
+     * Useful when only a few fields of a large document are needed. Syntax
+     * is checked only up to brackets and quotes here; errors inside of a
+     * subtree are thrown as IllegalStateException on access to it.
+     */
+    static public INode parseLazy(String string) throws JsonParsingException {
+        return LazyNodes.parse(string);
     }
 
-    private char convertIfSpecialChar(char x) {
-        if (x == 'b') return '\b';
-        if (x == 'f') return '\f';
-        if (x == 'n') return '\n';
-        if (x == 'r') return '\r';
-        if (x == 't') return '\t';
-        return x;
+    static public INode parse(Reader reader) throws JsonParsingException {
+        return parseDocument(new JsonReader(reader));
     }
 
-    private String eatString() throws JsonParsingException {
-        expect('"');
-
-        StringBuilder res = new StringBuilder();
-        boolean prevSlash = false;
-
-        while (true) {
-            char p = in.pop();
-            if (p == '"' && !prevSlash) {
-                break;
-            }
-            boolean hideChar = (p == '\\' && !prevSlash);
-            if (!hideChar) {
-                if (prevSlash) {
-                    res.append(convertIfSpecialChar(p));
-                } else {
-                    res.append(p);
-                }
-            }
-            if (p == '\\') {
-                prevSlash = !prevSlash; // double slash doesn't escape next character
-            } else {
-                prevSlash = false;
-            }
-        }
-
-        return res.toString();
+    /** Parses UTF-8 encoded json from bytes[offset, offset + length). */
+    static public INode parse(byte[] bytes, int offset, int length) throws JsonParsingException {
+        return parseDocument(new JsonReader(bytes, offset, length));
     }
 
-    /**
-     * - no support for escaped unicode characters
-     * - error message could be improved
+    /** Parses UTF-8 encoded json between position and limit of a heap or
+     * direct buffer. Position of the buffer is not changed.
      */
-    private StringNode parseString() throws JsonParsingException {
-        return new StringNode(eatString());
+    static public INode parse(ByteBuffer bytes) throws JsonParsingException {
+        return parseDocument(new JsonReader(bytes));
     }
 
-    private String eatInt() throws JsonParsingException {
-        boolean negative = false;
-        if (in.get() == '-') {
-            negative = true;
-            in.pop();
-        }
-
-        String res = eatDigits();
-        if (res.length() == 0) {
-            throw new JsonParsingException("Expectin digits or - sign");
-        }
-        if (res.length() > 1 && res.charAt(0) == '0') {
-            throw new JsonParsingException(
-                String.format("Leading zeros in multi digit number %s", res));
-        }
-
-        if (negative) {
-            return "-" + res;
-        } else {
-            return res;
+    /** Parses UTF-8 encoded json file through memory mapping, so file
+     * contents never land on the Java heap. Only the resulting tree does.
+     */
+    static public INode parse(Path path) throws JsonParsingException {
+        JsonReader in = new JsonReader(path);
+        try {
+            return parseDocument(in);
+        } finally {
+            closeQuietly(in);
         }
     }
 
-    private <T> Optional<T> tryParse(Parser<T> f) {
-        StringInputSeq.StateGuard sp = in.savePoint();
+    static private void closeQuietly(JsonReader in) {
         try {
-            return Optional.of(f.apply());
-        } catch (JsonParsingException e) {
-            sp.restore();
+            in.close();
+        } catch (IOException ex) {
+            // Nothing useful to do, the input is already parsed or failed
         }
-        return Optional.empty();
     }
 
-    private String eatDigits() throws JsonParsingException {
-        StringBuilder res = new StringBuilder();
-        while (!in.isEmpty() && Character.isDigit(in.get())) {
-            res.append(in.pop());
-        }
-        return res.toString();
+    /** Parses the next value from the reader.
+     *
+     * Unlike other methods doesn't check that the value is followed by the end
+     * of input.
+     */
+    static public INode parse(JsonReader in) throws JsonParsingException {
+        return new JsonParser(in).parseInternal();
     }
 
-    private INode parseNumber() throws JsonParsingException {
-        String intPart = eatInt();
-        Optional<String> fracPart = tryParse(this::eatFrac);
-        Optional<String> expPart = tryParse(this::eatExp);
-
-        if (!fracPart.isPresent() && !expPart.isPresent()) {
-            return new IntegerNode(intPart);
-        } else {
-            String str = intPart + fracPart.orElse("") + expPart.orElse("");
-            return new DoubleNode(str);
+    static private INode parseDocument(JsonReader in) throws JsonParsingException {
+        INode res = parse(in);
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonParsingException("Trailing input");
         }
+        return res;
     }
 
-    private String eatFrac() throws JsonParsingException {
-        expect('.');
-        String right = eatDigits();
-        return '.' + right;
-    }
-
-    private String eatExp() throws JsonParsingException {
-        char e = in.pop();
-        if (e != 'e' && e != 'E') {
-            throw new JsonParsingException(
-                String.format("Expected e or E but got %c", e));
-        }
-        String sign;
-        if (in.get() == '-' || in.get() == '+') {
-            sign = String.valueOf(in.pop());
-        } else {
-            sign = "";
-        }
-
-        String digits = eatDigits();
-        return String.valueOf(e) + sign + digits;
-    }
+    private final JsonReader in;
 
-    private BooleanNode parseBoolean() throws JsonParsingException {
-        Optional<Boolean> res = tryParse(() -> { expect("true"); return true; });
-        if (!res.isPresent()) {
-            res = tryParse(() -> { expect("false"); return false; });
-        }
-        return new BooleanNode(
-            res.orElseThrow(() -> new JsonParsingException("Failed to parse atom"))
-        );
+    private JsonParser(JsonReader in) {
+        this.in = in;
     }
 
-    private INode parseScalar() throws JsonParsingException {
-        Optional<INode> res = tryParse(this::parseString);
-        if (!res.isPresent()) {
-            res = tryParse(this::parseNumber);
+    private INode parseNumber() throws JsonParsingException {
+        if (in.isIntegerNumber()) {
+            if (!in.isLongNumber()) {
+                return new IntegerNode(in.nextNumber());
+            }
+            if (in.isLosslessNumbers()) {
+                String text = in.peekNumberText();
+                return new IntegerNode(in.nextLong(), text);
+            }
+            return new IntegerNode(in.nextLong());
         }
-        if (!res.isPresent()) {
-            res = tryParse(this::parseBoolean);
+        if (in.isLosslessNumbers()) {
+            String text = in.peekNumberText();
+            return new DoubleNode(in.nextDouble(), text);
         }
-        if (!res.isPresent()) {
-            res = tryParse(() -> { expect("null"); return NullNode.getInstance(); });
+        double value = in.nextDouble();
+        if (!Double.isFinite(value)) {
+            // Exponent overflow like 1e400, Infinity is not valid json
+            return new DoubleNode(value, in.numberText());
         }
-        return res.orElseThrow(() -> new JsonParsingException("Failed to parse scalar"));
+        return new DoubleNode(value);
     }
 
     private ArrayNode parseArray() throws JsonParsingException {
-        expect('[');
-        skipSpaces();
+        in.beginArray();
         List<INode> elems = new ArrayList();
-
-        boolean ok = (in.get() != ']');
-        while (ok) {
-            INode elem = parseInternal();
-            elems.add(elem);
-
-            skipSpaces();
-            if (in.get() == ','){
-                in.pop();
-            } else {
-                ok = false;
-            }
-            skipSpaces();
+        while (in.hasNext()) {
+            elems.add(parseInternal());
         }
-        expect(']');
+        in.endArray();
         return new ArrayNode(elems);
     }
 
     private ObjectNode parseObject() throws JsonParsingException {
-        expect('{');
-        skipSpaces();
-        Map<String, INode> fields = new HashMap();
-
-        boolean ok = (in.get() != '}');
-        while (ok) {
-            String key = eatString();
-            skipSpaces();
-            expect(':');
-            skipSpaces();
-            INode val = parseInternal();
-            fields.put(key, val);
-
-            skipSpaces();
-            if (in.get() == ','){
-                in.pop();
-                skipSpaces();
-            } else {
-                ok = false;
-            }
-        }
-        expect('}');
+        in.beginObject();
+        // Keeps members in the document order like lazy trees do
+        Map<String, INode> fields = new LinkedHashMap();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            fields.put(key, parseInternal());
+        }
+        in.endObject();
         return new ObjectNode(fields);
     }
 
     private INode parseInternal() throws JsonParsingException {
-        skipSpaces();
-        Optional<INode> res = tryParse(this::parseObject);
-        if (!res.isPresent()) {
-            res = tryParse(this::parseArray);
-        }
-        if (!res.isPresent()) {
-            res = tryParse(this::parseScalar);
+        JsonToken t = in.peek();
+        switch (t) {
+            case BEGIN_OBJECT:
+                return parseObject();
+            case BEGIN_ARRAY:
+                return parseArray();
+            case STRING:
+                return new StringNode(in.nextString());
+            case NUMBER:
+                return parseNumber();
+            case BOOLEAN:
+                return new BooleanNode(in.nextBoolean());
+            case NULL:
+                in.nextNull();
+                return NullNode.getInstance();
+            default:
+                throw new JsonParsingException(
+                    String.format("Failed to parse json: unexpected %s", t));
         }
-        return res.orElseThrow(() -> new JsonParsingException("Failed to parse json"));
     }
 }
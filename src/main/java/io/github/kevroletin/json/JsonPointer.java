@@ -0,0 +1,146 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.ArrayList;
+import java.util.List;
+
+/** JSON Pointer (RFC 6901) like /items/3/price which is evaluated over a
+ * JsonReader.
+ *
+ * The reader is moved straight to the addressed value: siblings on the way
+ * are skipped by matching brackets and quotes, keys are compared without
+ * creating strings, and nothing after the value is read. If a key is
+ * repeated, the first occurrence is used.
+ */
+public final class JsonPointer {
+
+    private final String pointer;
+
+    // Unescaped reference tokens, each in its own array for selectName
+    private final String[][] keys;
+
+    // Array index for each token or -1 if the token isn't an index
+    private final int[] indices;
+
+    private JsonPointer(String pointer, List<String> tokens) {
+        this.pointer = pointer;
+        this.keys = new String[tokens.size()][];
+        this.indices = new int[tokens.size()];
+        for (int i = 0; i < keys.length; ++i) {
+            keys[i] = new String[] {tokens.get(i)};
+            indices[i] = parseIndex(tokens.get(i));
+        }
+    }
+
+    /** Parses a pointer. Empty string points to the whole document,
+     * otherwise the pointer should start with /.
+     */
+    public static JsonPointer compile(String pointer) {
+        if (pointer == null) {
+            throw new IllegalArgumentException("pointer parameter shouldn't be null");
+        }
+        List<String> tokens = new ArrayList<>();
+        if (!pointer.isEmpty()) {
+            if (pointer.charAt(0) != '/') {
+                throw new IllegalArgumentException(
+                    String.format("Json pointer %s should start with /", pointer));
+            }
+            int start = 1;
+            while (true) {
+                int end = pointer.indexOf('/', start);
+                if (end == -1) {
+                    end = pointer.length();
+                }
+                tokens.add(unescape(pointer, start, end));
+                if (end == pointer.length()) {
+                    break;
+                }
+                start = end + 1;
+            }
+        }
+        return new JsonPointer(pointer, tokens);
+    }
+
+    private static String unescape(String pointer, int start, int end) {
+        StringBuilder res = new StringBuilder(end - start);
+        for (int i = start; i < end; ++i) {
+            char c = pointer.charAt(i);
+            if (c == '~') {
+                char next = i + 1 < end ? pointer.charAt(i + 1) : 0;
+                if (next != '0' && next != '1') {
+                    throw new IllegalArgumentException(
+                        String.format("Json pointer %s has invalid escape", pointer));
+                }
+                res.append(next == '0' ? '~' : '/');
+                ++i;
+            } else {
+                res.append(c);
+            }
+        }
+        return res.toString();
+    }
+
+    // Index should be 0 or digits without leading zeros
+    private static int parseIndex(String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return -1;
+        }
+        int res = 0;
+        for (int i = 0; i < token.length(); ++i) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            res = res * 10 + (c - '0');
+        }
+        return res;
+    }
+
+    /** Moves the reader to the addressed value. Returns location of the
+     * value for error messages or null if the document has no such value;
+     * in that case the reader is left in the middle of the document.
+     */
+    public Location seek(JsonReader in) throws JsonParsingException {
+        Location loc = Location.empty();
+        for (int i = 0; i < keys.length; ++i) {
+            JsonToken t = in.peek();
+            if (t == JsonToken.BEGIN_OBJECT) {
+                in.beginObject();
+                while (true) {
+                    if (!in.hasNext()) {
+                        return null;
+                    }
+                    if (in.selectName(keys[i]) == 0) {
+                        break;
+                    }
+                    in.skipValueUnchecked();
+                }
+                loc = loc.addField(keys[i][0]);
+            } else if (t == JsonToken.BEGIN_ARRAY) {
+                int idx = indices[i];
+                if (idx < 0) {
+                    return null;
+                }
+                in.beginArray();
+                for (int k = 0; k < idx; ++k) {
+                    if (!in.hasNext()) {
+                        return null;
+                    }
+                    in.skipValueUnchecked();
+                }
+                if (!in.hasNext()) {
+                    return null;
+                }
+                loc = loc.addIndex(idx);
+            } else {
+                return null;
+            }
+        }
+        return loc;
+    }
+
+    @Override
+    public String toString() {
+        return pointer;
+    }
+}
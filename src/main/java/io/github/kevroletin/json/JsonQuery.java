@@ -0,0 +1,243 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.ArrayNode;
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/** Precompiled json path query like $.orders[*].lines[*].sku.
+ *
+ * Supported steps:
+ *
+ * - .name or ['name'] selects a member of an object
+ * - [n] selects an element of an array
+ * - [*] or .* selects all members of an object or elements of an array
+ *
+ * The path is parsed once by compile, so evaluating a query only walks the
+ * document. Matches are passed to a consumer in the document order.
+ */
+public final class JsonQuery {
+
+    private static final int FIELD = 0;
+    private static final int INDEX = 1;
+    private static final int WILDCARD = 2;
+
+    private static final String[] NO_NAMES = {};
+
+    private final String path;
+
+    private final int[] kinds;
+
+    // Member name of FIELD steps, each in its own array for selectName
+    private final String[][] names;
+
+    private final int[] indices;
+
+    private JsonQuery(String path, List<Object> steps) {
+        this.path = path;
+        int n = steps.size();
+        this.kinds = new int[n];
+        this.names = new String[n][];
+        this.indices = new int[n];
+        for (int i = 0; i < n; ++i) {
+            Object step = steps.get(i);
+            if (step == null) {
+                kinds[i] = WILDCARD;
+            } else if (step instanceof Integer) {
+                kinds[i] = INDEX;
+                indices[i] = (Integer) step;
+            } else {
+                kinds[i] = FIELD;
+                names[i] = new String[] {(String) step};
+            }
+        }
+    }
+
+    public static JsonQuery compile(String path) {
+        if (path == null) {
+            throw new IllegalArgumentException("path parameter shouldn't be null");
+        }
+        if (path.isEmpty() || path.charAt(0) != '$') {
+            throw invalid(path, 0);
+        }
+        // Steps: String for a member, Integer for an index, null for a wildcard
+        List<Object> steps = new ArrayList<>();
+        int pos = 1;
+        while (pos < path.length()) {
+            char c = path.charAt(pos);
+            if (c == '.') {
+                int start = ++pos;
+                while (pos < path.length() && path.charAt(pos) != '.' && path.charAt(pos) != '[') {
+                    ++pos;
+                }
+                if (pos == start) {
+                    throw invalid(path, pos);
+                }
+                String name = path.substring(start, pos);
+                steps.add(name.equals("*") ? null : name);
+            } else if (c == '[') {
+                pos = parseBracket(path, pos + 1, steps);
+            } else {
+                throw invalid(path, pos);
+            }
+        }
+        return new JsonQuery(path, steps);
+    }
+
+    // Parses a step after [ and returns position after ]
+    private static int parseBracket(String path, int pos, List<Object> steps) {
+        if (pos >= path.length()) {
+            throw invalid(path, pos);
+        }
+        char c = path.charAt(pos);
+        if (c == '*') {
+            steps.add(null);
+            ++pos;
+        } else if (c == '\'' || c == '"') {
+            StringBuilder name = new StringBuilder();
+            ++pos;
+            while (pos < path.length() && path.charAt(pos) != c) {
+                if (path.charAt(pos) == '\\') {
+                    ++pos;
+                }
+                if (pos < path.length()) {
+                    name.append(path.charAt(pos++));
+                }
+            }
+            if (pos >= path.length()) {
+                throw invalid(path, pos);
+            }
+            steps.add(name.toString());
+            ++pos;
+        } else {
+            int start = pos;
+            long idx = 0;
+            while (pos < path.length() && Character.isDigit(path.charAt(pos))) {
+                idx = idx * 10 + (path.charAt(pos++) - '0');
+                if (idx > Integer.MAX_VALUE) {
+                    throw invalid(path, start);
+                }
+            }
+            if (pos == start) {
+                throw invalid(path, pos);
+            }
+            steps.add((int) idx);
+        }
+        if (pos >= path.length() || path.charAt(pos) != ']') {
+            throw invalid(path, pos);
+        }
+        return pos + 1;
+    }
+
+    private static IllegalArgumentException invalid(String path, int pos) {
+        return new IllegalArgumentException(
+            String.format("Invalid json path %s at position %d", path, pos));
+    }
+
+    /** Evaluates the query over a parsed tree.
+     *
+     * Members are visited in the iteration order of ObjectNode maps. Trees
+     * of JsonParser, lazy and tape trees keep the document order, so the
+     * result is the same as of the streaming evaluate, except that a
+     * repeated key is matched once with its last value. For other maps the
+     * order of wildcard matches is unspecified.
+     */
+    public void evaluate(INode root, Consumer<INode> out) {
+        evaluate(root, 0, out);
+    }
+
+    private void evaluate(INode node, int step, Consumer<INode> out) {
+        if (step == kinds.length) {
+            out.accept(node);
+            return;
+        }
+        if (node instanceof ObjectNode) {
+            Map<String, INode> fields = ((ObjectNode) node).get();
+            if (kinds[step] == FIELD) {
+                INode val = fields.get(names[step][0]);
+                if (val != null) {
+                    evaluate(val, step + 1, out);
+                }
+            } else if (kinds[step] == WILDCARD) {
+                for (INode val: fields.values()) {
+                    evaluate(val, step + 1, out);
+                }
+            }
+        } else if (node instanceof ArrayNode) {
+            List<INode> elems = ((ArrayNode) node).get();
+            if (kinds[step] == INDEX) {
+                if (indices[step] < elems.size()) {
+                    evaluate(elems.get(indices[step]), step + 1, out);
+                }
+            } else if (kinds[step] == WILDCARD) {
+                for (INode val: elems) {
+                    evaluate(val, step + 1, out);
+                }
+            }
+        }
+    }
+
+    /** Evaluates the query over a document and checks that nothing but
+     * spaces follows it.
+     */
+    public void evaluate(String json, Consumer<INode> out) throws JsonParsingException {
+        JsonReader in = new JsonReader(json);
+        evaluate(in, out);
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonParsingException("Trailing input");
+        }
+    }
+
+    /** Evaluates the query over the next value of the reader.
+     *
+     * Only matched values are parsed into trees; everything else is skipped
+     * by matching brackets and quotes, so errors inside of skipped values
+     * are not reported. If a key is repeated, each occurrence is matched.
+     */
+    public void evaluate(JsonReader in, Consumer<INode> out) throws JsonParsingException {
+        evaluate(in, 0, out);
+    }
+
+    private void evaluate(JsonReader in, int step, Consumer<INode> out) throws JsonParsingException {
+        if (step == kinds.length) {
+            out.accept(JsonParser.parse(in));
+            return;
+        }
+        JsonToken t = in.peek();
+        if (t == JsonToken.BEGIN_OBJECT && kinds[step] != INDEX) {
+            in.beginObject();
+            boolean all = kinds[step] == WILDCARD;
+            while (in.hasNext()) {
+                // Names are only compared, so they are not materialized
+                int found = in.selectName(all ? NO_NAMES : names[step]);
+                if (all || found == 0) {
+                    evaluate(in, step + 1, out);
+                } else {
+                    in.skipValueUnchecked();
+                }
+            }
+            in.endObject();
+        } else if (t == JsonToken.BEGIN_ARRAY && kinds[step] != FIELD) {
+            in.beginArray();
+            for (int idx = 0; in.hasNext(); ++idx) {
+                if (kinds[step] == WILDCARD || idx == indices[step]) {
+                    evaluate(in, step + 1, out);
+                } else {
+                    in.skipValueUnchecked();
+                }
+            }
+            in.endArray();
+        } else {
+            in.skipValueUnchecked();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,928 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/** Pull parser which reads json token by token.
+ *
+ * Input is consumed incrementally through a fixed-size buffer, so memory usage
+ * doesn't depend on a document size (except for individual strings and
+ * numbers which are materialized on request).
+ *
+ * Usage:
+ *
+ *     reader.beginObject();
+ *     while (reader.hasNext()) {
+ *         String name = reader.nextName();
+ *         ...
+ *     }
+ *     reader.endObject();
+ */
+public class JsonReader implements Closeable {
+    static final int BUFFER_SIZE = 8192;
+
+    // Minimal buffer size, it should fit the longest literal (false)
+    private static final int MIN_BUFFER_SIZE = 16;
+
+    // 10^18 - 1 is the largest mantissa which can't overflow long
+    private static final int MAX_MANTISSA_DIGITS = 18;
+
+    private static final int MAX_EXPONENT = 100000;
+
+    // Integers up to 2^53 are exactly representable as double
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader reader;
+
+    private final String string;
+
+    private int stringPos;
+
+    private final int stringEnd;
+
+    private final char[] buf;
+
+    private int pos = 0;
+
+    private int limit = 0;
+
+    // Position of buf[0] in the input
+    private long bufStart = 0;
+
+    private int[] stack = new int[32];
+
+    private int stackSize = 1;
+
+    private JsonToken peeked;
+
+    // Newline delimited json: sequence of values each on its own line
+    private boolean lineDelimited = false;
+
+    // Last consumed character which was dropped from the buffer on refill
+    private char lastDropped = '\n';
+
+    private boolean peekedBoolean;
+
+    private boolean peekedInteger;
+
+    private final StringBuilder numberBuf = new StringBuilder();
+
+    // Number of the peeked NUMBER token: numberMantissa * 10^numberExp10
+    private boolean numberNegative;
+
+    private long numberMantissa;
+
+    private int numberDigits;
+
+    private int numberExp10;
+
+    // Some non zero digits didn't fit into mantissa
+    private boolean numberTruncated;
+
+    private boolean numberFitsLong;
+
+    private long numberLong;
+
+    private boolean losslessNumbers = false;
+
+    private final StringBuilder stringBuf = new StringBuilder();
+
+    private long skippedChars = 0;
+
+    public JsonReader(Reader reader) {
+        this.reader = reader;
+        this.string = null;
+        this.stringEnd = 0;
+        this.buf = new char[BUFFER_SIZE];
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    public JsonReader(InputStream in) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    /** Reads UTF-8 encoded json between position and limit of a heap or
+     * direct buffer. Bytes are decoded on demand into the reader buffer.
+     */
+    public JsonReader(ByteBuffer bytes) {
+        this(new Utf8Reader(bytes));
+    }
+
+    public JsonReader(byte[] bytes, int offset, int length) {
+        this(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /** Reads UTF-8 encoded json file mapped into memory, so its contents
+     * don't occupy Java heap. Files larger than 2GB are supported. The reader
+     * should be closed to release the file.
+     */
+    public JsonReader(Path path) throws JsonParsingException {
+        this(openMapped(path));
+    }
+
+    private static Reader openMapped(Path path) throws JsonParsingException {
+        try {
+            return new MappedFileReader(path);
+        } catch (IOException ex) {
+            throw new JsonParsingException("Failed to read input: " + ex.getMessage(), ex);
+        }
+    }
+
+    public JsonReader(String string) {
+        this(string, 0, string.length());
+    }
+
+    /** Reads json from string[start, end). */
+    JsonReader(String string, int start, int end) {
+        this.reader = null;
+        this.string = string;
+        this.stringPos = start;
+        this.stringEnd = end;
+        this.buf = new char[Math.max(MIN_BUFFER_SIZE, Math.min(BUFFER_SIZE, end - start))];
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    public JsonToken peek() throws JsonParsingException {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    /** Returns true if the current array or object has more elements.
+     */
+    public boolean hasNext() throws JsonParsingException {
+        JsonToken t = peek();
+        return t != JsonToken.END_OBJECT
+            && t != JsonToken.END_ARRAY
+            && t != JsonToken.END_DOCUMENT;
+    }
+
+    public void beginObject() throws JsonParsingException {
+        consume(JsonToken.BEGIN_OBJECT);
+    }
+
+    public void endObject() throws JsonParsingException {
+        consume(JsonToken.END_OBJECT);
+        --stackSize;
+    }
+
+    public void beginArray() throws JsonParsingException {
+        consume(JsonToken.BEGIN_ARRAY);
+    }
+
+    public void endArray() throws JsonParsingException {
+        consume(JsonToken.END_ARRAY);
+        --stackSize;
+    }
+
+    public String nextName() throws JsonParsingException {
+        consume(JsonToken.NAME);
+        return readString();
+    }
+
+    /** Reads the next name and returns its index in names or -1 if it isn't
+     * there. Names should be sorted; if a name is repeated, index of the
+     * first occurrence is returned.
+     *
+     * Names without escapes are compared straight in the buffer, so no
+     * String is created for them.
+     */
+    public int selectName(String[] names) throws JsonParsingException {
+        consume(JsonToken.NAME);
+        char[] b = buf;
+        int start = pos;
+        for (int p = start; p < limit; ++p) {
+            char c = b[p];
+            if (c == '"') {
+                pos = p + 1;
+                return findName(names, b, start, p - start);
+            }
+            if (c == '\\' || c == '\n') {
+                break;
+            }
+        }
+        char[] name = readString().toCharArray();
+        return findName(names, name, 0, name.length);
+    }
+
+    private static int findName(String[] names, char[] b, int off, int len) {
+        int lo = 0;
+        int hi = names.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareName(names[mid], b, off, len) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo < names.length && compareName(names[lo], b, off, len) == 0) {
+            return lo;
+        }
+        return -1;
+    }
+
+    // Same order as String.compareTo
+    private static int compareName(String name, char[] b, int off, int len) {
+        int n = Math.min(name.length(), len);
+        for (int i = 0; i < n; ++i) {
+            int d = name.charAt(i) - b[off + i];
+            if (d != 0) {
+                return d;
+            }
+        }
+        return name.length() - len;
+    }
+
+    public String nextString() throws JsonParsingException {
+        consume(JsonToken.STRING);
+        return readString();
+    }
+
+    /** Returns text of a number literal.
+     */
+    public String nextNumber() throws JsonParsingException {
+        consume(JsonToken.NUMBER);
+        return numberBuf.toString();
+    }
+
+    /** Returns true if the next token is a number without fraction and
+     * exponent parts.
+     */
+    public boolean isIntegerNumber() throws JsonParsingException {
+        return peek() == JsonToken.NUMBER && peekedInteger;
+    }
+
+    /** Returns true if the next token is an integer number which fits into
+     * long.
+     */
+    public boolean isLongNumber() throws JsonParsingException {
+        return peek() == JsonToken.NUMBER && peekedInteger && numberFitsLong;
+    }
+
+    /** Returns value of an integer number which fits into long. Digits are
+     * accumulated while reading the number, so no text is created.
+     */
+    public long nextLong() throws JsonParsingException {
+        if (peek() == JsonToken.NUMBER && !(peekedInteger && numberFitsLong)) {
+            throw new JsonParsingException(
+                String.format("Number %s doesn't fit into long", numberBuf));
+        }
+        consume(JsonToken.NUMBER);
+        return numberLong;
+    }
+
+    /** Returns value of a number as the nearest double. Most numbers are
+     * computed from accumulated digits, Double.parseDouble is used only for
+     * numbers with many significant digits or large exponents.
+     */
+    public double nextDouble() throws JsonParsingException {
+        consume(JsonToken.NUMBER);
+        return computeDouble();
+    }
+
+    /** Text of the peeked number without consuming it. */
+    String peekNumberText() throws JsonParsingException {
+        if (peek() != JsonToken.NUMBER) {
+            throw new JsonParsingException(
+                String.format("Expected %s but got %s", JsonToken.NUMBER, peek()));
+        }
+        return numberBuf.toString();
+    }
+
+    /** Text of the last peeked or read number. */
+    String numberText() {
+        return numberBuf.toString();
+    }
+
+    /** Makes JsonParser keep original text of numbers in the tree, so
+     * numbers are printed exactly as they were written. Integers which don't
+     * fit into long keep their text regardless of this setting.
+     */
+    public void setLosslessNumbers(boolean losslessNumbers) {
+        this.losslessNumbers = losslessNumbers;
+    }
+
+    public boolean isLosslessNumbers() {
+        return losslessNumbers;
+    }
+
+    public boolean nextBoolean() throws JsonParsingException {
+        consume(JsonToken.BOOLEAN);
+        return peekedBoolean;
+    }
+
+    public void nextNull() throws JsonParsingException {
+        consume(JsonToken.NULL);
+    }
+
+    /** Switches reader into newline delimited json mode (NDJSON).
+     *
+     * In this mode input is a sequence of values separated by newlines. Each
+     * value should fit in a single line, a line break inside a value is
+     * reported as an error, so the rest of input can be recovered with
+     * skipLine. Blank lines are ignored. END_DOCUMENT is returned after the
+     * last value.
+     */
+    public void setLineDelimited(boolean lineDelimited) {
+        this.lineDelimited = lineDelimited;
+    }
+
+    public boolean isLineDelimited() {
+        return lineDelimited;
+    }
+
+    /** Discards the rest of the current line and resets the reader to the
+     * top level. Used to recover from an error in newline delimited mode.
+     */
+    public void skipLine() throws JsonParsingException {
+        peeked = null;
+        stackSize = 1;
+        stack[0] = EMPTY_DOCUMENT;
+        char last = pos > 0 ? buf[pos - 1] : lastDropped;
+        if (last == '\n') {
+            return;
+        }
+        int c;
+        while ((c = peekChar()) != -1) {
+            ++pos;
+            if (c == '\n') {
+                return;
+            }
+        }
+    }
+
+    /** Consumes the rest of the line after a top level value in newline
+     * delimited mode and resets the reader to the top level. Throws if
+     * there is something but spaces after the value.
+     */
+    public void endLine() throws JsonParsingException {
+        int c;
+        while ((c = peekChar()) != -1) {
+            if (c == '\n') {
+                ++pos;
+                break;
+            }
+            if (!isSpace((char) c)) {
+                throw new JsonParsingException("Trailing input");
+            }
+            ++pos;
+        }
+        peeked = null;
+        stackSize = 1;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /** Skips the next value including all nested values.
+     */
+    public void skipValue() throws JsonParsingException {
+        long start = getPosition();
+        int depth = 0;
+        do {
+            switch (peek()) {
+                case BEGIN_ARRAY:
+                case BEGIN_OBJECT:
+                    peeked = null;
+                    ++depth;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    peeked = null;
+                    --stackSize;
+                    --depth;
+                    break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString();
+                    break;
+                case END_DOCUMENT:
+                    throw new JsonParsingException("Unexcepted end of input");
+                default:
+                    peeked = null;
+            }
+        } while (depth > 0);
+        skippedChars += getPosition() - start;
+    }
+
+    /** Skips the next value like skipValue, but objects and arrays are
+     * skipped by matching brackets and quotes only. Their contents are not
+     * validated, so a malformed value can be skipped without an error.
+     */
+    public void skipValueUnchecked() throws JsonParsingException {
+        long start = getPosition();
+        JsonToken t = peek();
+        if (t != JsonToken.BEGIN_OBJECT && t != JsonToken.BEGIN_ARRAY) {
+            skipValue();
+            return;
+        }
+        // Opening bracket is consumed by peek
+        peeked = null;
+        --stackSize;
+        int depth = 1;
+        char[] b = buf;
+        while (true) {
+            int p = pos;
+            int l = limit;
+            while (p < l) {
+                char c = b[p++];
+                if (c == '"') {
+                    pos = p;
+                    skipString();
+                    p = pos;
+                    l = limit;
+                } else if (c == '{' || c == '[') {
+                    ++depth;
+                } else if (c == '}' || c == ']') {
+                    if (--depth == 0) {
+                        pos = p;
+                        skippedChars += getPosition() - start;
+                        return;
+                    }
+                } else if (c == '\n' && lineDelimited) {
+                    pos = p;
+                    throw endOfLine();
+                }
+            }
+            pos = p;
+            if (!fillBuffer(1)) {
+                throw new JsonParsingException("Unexcepted end of input");
+            }
+        }
+    }
+
+    /** Number of characters skipped by skipValue and skipValueUnchecked so
+     * far including separators before values. Values which were peeked
+     * before skipping are counted partially.
+     */
+    public long getSkippedChars() {
+        return skippedChars;
+    }
+
+    /** Number of characters consumed so far.
+     */
+    public long getPosition() {
+        return bufStart + pos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonReader{" + "position=" + getPosition() + '}';
+    }
+
+    private void consume(JsonToken expected) throws JsonParsingException {
+        JsonToken got = peek();
+        if (got != expected) {
+            throw new JsonParsingException(
+                String.format("Expected %s but got %s", expected, got));
+        }
+        peeked = null;
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private JsonToken doPeek() throws JsonParsingException {
+        int top = stackSize - 1;
+        int scope = stack[top];
+        if (scope == EMPTY_ARRAY) {
+            stack[top] = NONEMPTY_ARRAY;
+            if (nextNonSpace() == ']') {
+                return JsonToken.END_ARRAY;
+            }
+            --pos;
+        } else if (scope == NONEMPTY_ARRAY) {
+            char c = nextNonSpace();
+            if (c == ']') {
+                return JsonToken.END_ARRAY;
+            }
+            if (c != ',') {
+                throw new JsonParsingException(
+                    String.format("Expected , or ] but got %c", c));
+            }
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            stack[top] = DANGLING_NAME;
+            char c = nextNonSpace();
+            if (c == '}') {
+                return JsonToken.END_OBJECT;
+            }
+            if (scope == NONEMPTY_OBJECT) {
+                if (c != ',') {
+                    throw new JsonParsingException(
+                        String.format("Expected , or } but got %c", c));
+                }
+                c = nextNonSpace();
+            }
+            if (c != '"') {
+                throw new JsonParsingException(
+                    String.format("Expected \" but got %c", c));
+            }
+            return JsonToken.NAME;
+        } else if (scope == DANGLING_NAME) {
+            stack[top] = NONEMPTY_OBJECT;
+            char c = nextNonSpace();
+            if (c != ':') {
+                throw new JsonParsingException(
+                    String.format("Expected : but got %c", c));
+            }
+        } else if (scope == EMPTY_DOCUMENT) {
+            if (lineDelimited && !skipSpaces()) {
+                return JsonToken.END_DOCUMENT;
+            }
+            stack[top] = NONEMPTY_DOCUMENT;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (lineDelimited) {
+                return peekNextLine();
+            }
+            if (!skipSpaces()) {
+                return JsonToken.END_DOCUMENT;
+            }
+            throw new JsonParsingException("Trailing input");
+        }
+        return peekValue();
+    }
+
+    // Value in newline delimited mode should be followed by the end of line
+    private JsonToken peekNextLine() throws JsonParsingException {
+        int c;
+        while ((c = peekChar()) != -1 && c != '\n') {
+            if (!isSpace((char) c)) {
+                throw new JsonParsingException("Trailing input");
+            }
+            ++pos;
+        }
+        if (!skipSpaces()) {
+            return JsonToken.END_DOCUMENT;
+        }
+        return peekValue();
+    }
+
+    private JsonToken peekValue() throws JsonParsingException {
+        char c = nextNonSpace();
+        switch (c) {
+            case '{':
+                push(EMPTY_OBJECT);
+                return JsonToken.BEGIN_OBJECT;
+            case '[':
+                push(EMPTY_ARRAY);
+                return JsonToken.BEGIN_ARRAY;
+            case '"':
+                return JsonToken.STRING;
+            case 't':
+                expectLiteral("rue");
+                peekedBoolean = true;
+                return JsonToken.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                peekedBoolean = false;
+                return JsonToken.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return JsonToken.NULL;
+            default:
+                if (c == '-' || isDigit(c)) {
+                    --pos;
+                    lexNumber();
+                    return JsonToken.NUMBER;
+                }
+                throw new JsonParsingException(
+                    String.format("Failed to parse json: unexpected character %c", c));
+        }
+    }
+
+    static boolean isSpace(char c) {
+        return c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private int read(char[] dst, int off, int len) throws JsonParsingException {
+        if (reader == null) {
+            int n = Math.min(len, stringEnd - stringPos);
+            if (n <= 0) {
+                return -1;
+            }
+            string.getChars(stringPos, stringPos + n, dst, off);
+            stringPos += n;
+            return n;
+        }
+        try {
+            return reader.read(dst, off, len);
+        } catch (IOException ex) {
+            throw new JsonParsingException("Failed to read input: " + ex.getMessage(), ex);
+        }
+    }
+
+    /** Moves unread characters to the beginning of the buffer and reads until
+     * at least minimum characters are available.
+     */
+    private boolean fillBuffer(int minimum) throws JsonParsingException {
+        if (pos > 0) {
+            lastDropped = buf[pos - 1];
+        }
+        bufStart += pos;
+        if (limit != pos) {
+            limit -= pos;
+            System.arraycopy(buf, pos, buf, 0, limit);
+        } else {
+            limit = 0;
+        }
+        pos = 0;
+
+        int n;
+        while ((n = read(buf, limit, buf.length - limit)) != -1) {
+            limit += n;
+            if (limit >= minimum) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private char nextChar() throws JsonParsingException {
+        if (pos == limit && !fillBuffer(1)) {
+            throw new JsonParsingException("Unexcepted end of input");
+        }
+        return buf[pos++];
+    }
+
+    // Returns next character without consuming it or -1 at the end of input
+    private int peekChar() throws JsonParsingException {
+        if (pos == limit && !fillBuffer(1)) {
+            return -1;
+        }
+        return buf[pos];
+    }
+
+    private char nextNonSpace() throws JsonParsingException {
+        while (true) {
+            char c = nextChar();
+            if (!isSpace(c)) {
+                return c;
+            }
+            if (c == '\n' && lineDelimited) {
+                throw endOfLine();
+            }
+        }
+    }
+
+    // Returns false if there is nothing but spaces till the end of input
+    private boolean skipSpaces() throws JsonParsingException {
+        int c;
+        while ((c = peekChar()) != -1) {
+            if (!isSpace((char) c)) {
+                return true;
+            }
+            ++pos;
+        }
+        return false;
+    }
+
+    private JsonParsingException endOfLine() {
+        return new JsonParsingException("Unexpected end of line");
+    }
+
+    private void expectLiteral(String rest) throws JsonParsingException {
+        for (int i = 0; i < rest.length(); ++i) {
+            char expect = rest.charAt(i);
+            char got = nextChar();
+            if (got != expect) {
+                throw new JsonParsingException(
+                    String.format("Expected %c but got %c", expect, got));
+            }
+        }
+    }
+
+    private int appendDigits() throws JsonParsingException {
+        int n = 0;
+        int c;
+        while (isDigit(c = peekChar())) {
+            numberBuf.append((char) c);
+            ++pos;
+            ++n;
+        }
+        return n;
+    }
+
+    // Accumulates up to MAX_MANTISSA_DIGITS significant digits into
+    // numberMantissa, the rest is accounted in numberExp10
+    private int appendMantissaDigits(boolean fraction) throws JsonParsingException {
+        int n = 0;
+        int c;
+        while (isDigit(c = peekChar())) {
+            numberBuf.append((char) c);
+            ++pos;
+            ++n;
+            if (numberMantissa == 0 && c == '0') {
+                // Not a significant digit yet
+                if (fraction) {
+                    --numberExp10;
+                }
+            } else if (numberDigits < MAX_MANTISSA_DIGITS) {
+                numberMantissa = numberMantissa * 10 + (c - '0');
+                ++numberDigits;
+                if (fraction) {
+                    --numberExp10;
+                }
+            } else {
+                numberTruncated |= c != '0';
+                if (!fraction) {
+                    ++numberExp10;
+                }
+            }
+        }
+        return n;
+    }
+
+    private void lexNumber() throws JsonParsingException {
+        numberBuf.setLength(0);
+        numberNegative = false;
+        numberMantissa = 0;
+        numberDigits = 0;
+        numberExp10 = 0;
+        numberTruncated = false;
+        if (peekChar() == '-') {
+            numberBuf.append('-');
+            numberNegative = true;
+            ++pos;
+        }
+        int intStart = numberBuf.length();
+        int intLen = appendMantissaDigits(false);
+        if (intLen == 0) {
+            throw new JsonParsingException("Expectin digits or - sign");
+        }
+        if (intLen > 1 && numberBuf.charAt(intStart) == '0') {
+            throw new JsonParsingException(
+                String.format("Leading zeros in multi digit number %s",
+                              numberBuf.substring(intStart)));
+        }
+
+        boolean isInteger = true;
+        if (peekChar() == '.') {
+            numberBuf.append('.');
+            ++pos;
+            if (appendMantissaDigits(true) == 0) {
+                throw new JsonParsingException("Expected digits after decimal point");
+            }
+            isInteger = false;
+        }
+        int c = peekChar();
+        if (c == 'e' || c == 'E') {
+            numberBuf.append((char) c);
+            ++pos;
+            c = peekChar();
+            boolean negativeExp = false;
+            if (c == '-' || c == '+') {
+                numberBuf.append((char) c);
+                negativeExp = c == '-';
+                ++pos;
+            }
+            int expStart = numberBuf.length();
+            if (appendDigits() == 0) {
+                throw new JsonParsingException("Expected digits in exponent");
+            }
+            int exp = 0;
+            for (int i = expStart; i < numberBuf.length(); ++i) {
+                // Saturate, such exponents overflow or underflow anyway
+                exp = Math.min(MAX_EXPONENT, exp * 10 + (numberBuf.charAt(i) - '0'));
+            }
+            numberExp10 += negativeExp ? -exp : exp;
+            isInteger = false;
+        }
+        peekedInteger = isInteger;
+
+        numberFitsLong = false;
+        if (isInteger) {
+            if (numberExp10 == 0 && !numberTruncated) {
+                numberFitsLong = true;
+                numberLong = numberNegative ? -numberMantissa : numberMantissa;
+            } else if (intLen <= 20) {
+                // Long has 19 digits, use slow path to check the range
+                try {
+                    numberLong = Long.parseLong(numberBuf.toString());
+                    numberFitsLong = true;
+                } catch (NumberFormatException ex) {
+                    // Big number, only text is available
+                }
+            }
+        }
+    }
+
+    private double computeDouble() {
+        if (numberFitsLong && Math.abs(numberLong) <= MAX_EXACT_LONG) {
+            return (double) numberLong;
+        }
+        long m = numberMantissa;
+        int e = numberExp10;
+        // Clinger's fast path: both mantissa and power of ten are exact
+        // doubles, so a single correctly rounded operation gives exact result
+        if (!numberTruncated && m <= MAX_EXACT_LONG && e >= -22 && e <= 22) {
+            double res = e >= 0 ? m * POWERS_OF_TEN[e] : m / POWERS_OF_TEN[-e];
+            return numberNegative ? -res : res;
+        }
+        return Double.parseDouble(numberBuf.toString());
+    }
+
+    private char convertIfSpecialChar(char x) {
+        if (x == 'b') return '\b';
+        if (x == 'f') return '\f';
+        if (x == 'n') return '\n';
+        if (x == 'r') return '\r';
+        if (x == 't') return '\t';
+        return x;
+    }
+
+    /**
+     * Reads string body after the opening quote.
+     *
+     * - no support for escaped unicode characters
+     * - strings which fit into the buffer and have no escapes are copied
+     *   straight from the buffer
+     */
+    private String readString() throws JsonParsingException {
+        char[] b = buf;
+        int start = pos;
+        for (int p = start; p < limit; ++p) {
+            char c = b[p];
+            if (c == '"') {
+                pos = p + 1;
+                return new String(b, start, p - start);
+            }
+            if (c == '\\' || c == '\n') {
+                break;
+            }
+        }
+
+        StringBuilder res = stringBuf;
+        res.setLength(0);
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                break;
+            }
+            if (c == '\\') {
+                c = nextChar();
+                if (c == '\n' && lineDelimited) {
+                    throw endOfLine();
+                }
+                res.append(convertIfSpecialChar(c));
+            } else if (c == '\n' && lineDelimited) {
+                throw endOfLine();
+            } else {
+                res.append(c);
+            }
+        }
+        return res.toString();
+    }
+
+    private void skipString() throws JsonParsingException {
+        while (true) {
+            char c = nextChar();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = nextChar();
+            }
+            if (c == '\n' && lineDelimited) {
+                throw endOfLine();
+            }
+        }
+    }
+}
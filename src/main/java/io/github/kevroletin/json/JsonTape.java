@@ -0,0 +1,339 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.ArrayNode;
+import io.github.kevroletin.json.AST.BooleanNode;
+import io.github.kevroletin.json.AST.DoubleNode;
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.IntegerNode;
+import io.github.kevroletin.json.AST.NullNode;
+import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.AST.StringNode;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.RandomAccess;
+
+/** Compact read-only document model: the whole document is stored in a flat
+ * long[] tape and a pool of strings instead of a graph of INode objects.
+ *
+ * Every tape entry has a type tag in the upper byte and a payload in the rest:
+ *
+ * - object/array: [START | index of END] [number of children] children...
+ *   [END | index of START]; object children are key STRING followed by value
+ * - integer which fits into long: [INTEGER] [value]
+ * - double: [DOUBLE] [raw bits of value]
+ * - string, integer which doesn't fit into long and double which overflows
+ *   (like 1e400): [tag | index in pool]
+ * - true, false, null: [tag]
+ *
+ * Object keys are shared in the pool, so repeated keys are stored once.
+ * INode views are created on demand: objects and arrays become ordinary
+ * ObjectNode and ArrayNode backed by lazy read-only collections, so
+ * Deserializer and type adapters work on top of the tape unchanged. Views
+ * index their children on the first access, so they are not thread-safe.
+ */
+public final class JsonTape {
+
+    static final int OBJECT = 1;
+    static final int END_OBJECT = 2;
+    static final int ARRAY = 3;
+    static final int END_ARRAY = 4;
+    static final int STRING = 5;
+    static final int INTEGER = 6;
+    static final int BIG_INTEGER = 7;
+    static final int DOUBLE = 8;
+    static final int TRUE = 9;
+    static final int FALSE = 10;
+    static final int NULL = 11;
+    static final int BIG_DOUBLE = 12;
+
+    private static final long PAYLOAD_MASK = (1L << 56) - 1;
+
+    private final long[] tape;
+
+    private final String[] pool;
+
+    private JsonTape(long[] tape, String[] pool) {
+        this.tape = tape;
+        this.pool = pool;
+    }
+
+    public static JsonTape parse(String string) throws JsonParsingException {
+        JsonReader in = new JsonReader(string);
+        JsonTape res = parse(in);
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonParsingException("Trailing input");
+        }
+        return res;
+    }
+
+    /** Parses the next value from the reader without checking that it is
+     * followed by the end of input.
+     */
+    public static JsonTape parse(JsonReader in) throws JsonParsingException {
+        return new Builder(in).build();
+    }
+
+    /** Returns view of the document root. */
+    public INode root() {
+        return node(0);
+    }
+
+    /** Number of long entries in the tape. */
+    public int tapeLength() {
+        return tape.length;
+    }
+
+    /** Number of strings in the pool. */
+    public int poolSize() {
+        return pool.length;
+    }
+
+    private int tag(int i) {
+        return (int) (tape[i] >>> 56);
+    }
+
+    private int payload(int i) {
+        return (int) (tape[i] & PAYLOAD_MASK);
+    }
+
+    // Index of the entry which follows the value at i
+    private int next(int i) {
+        switch (tag(i)) {
+            case OBJECT:
+            case ARRAY:
+                return payload(i) + 1;
+            case INTEGER:
+            case DOUBLE:
+                return i + 2;
+            default:
+                return i + 1;
+        }
+    }
+
+    INode node(int i) {
+        switch (tag(i)) {
+            case OBJECT:
+                return new ObjectNode(new TapeObject(i));
+            case ARRAY:
+                return new ArrayNode(new TapeArray(i));
+            case STRING:
+                return new StringNode(pool[payload(i)]);
+            case INTEGER:
+                return new IntegerNode(tape[i + 1]);
+            case BIG_INTEGER:
+                return new IntegerNode(pool[payload(i)]);
+            case DOUBLE:
+                return new DoubleNode(Double.longBitsToDouble(tape[i + 1]));
+            case BIG_DOUBLE:
+                return new DoubleNode(pool[payload(i)]);
+            case TRUE:
+                return new BooleanNode(true);
+            case FALSE:
+                return new BooleanNode(false);
+            case NULL:
+                return NullNode.getInstance();
+            default:
+                throw new IllegalStateException("Corrupted tape at " + i);
+        }
+    }
+
+    private class TapeArray extends AbstractList<INode> implements RandomAccess {
+        private final int start;
+
+        private final int size;
+
+        // Tape indices of elements, computed on the first access
+        private int[] elements;
+
+        TapeArray(int start) {
+            this.start = start;
+            this.size = (int) tape[start + 1];
+        }
+
+        @Override
+        public INode get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            if (elements == null) {
+                int[] res = new int[size];
+                int i = start + 2;
+                for (int k = 0; k < size; ++k) {
+                    res[k] = i;
+                    i = next(i);
+                }
+                elements = res;
+            }
+            return node(elements[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private class TapeObject extends LazyKeysMap {
+        private final int start;
+
+        TapeObject(int start) {
+            this.start = start;
+        }
+
+        // Value reference is the tape index of the value
+        @Override
+        protected void scan() {
+            int count = (int) tape[start + 1];
+            begin(count);
+            int i = start + 2;
+            for (int k = 0; k < count; ++k) {
+                add(pool[payload(i)], i + 1);
+                i = next(i + 1);
+            }
+        }
+
+        @Override
+        protected INode value(int k, int ref) {
+            return node(ref);
+        }
+    }
+
+    private static class Builder {
+        private final JsonReader in;
+
+        private long[] tape = new long[64];
+
+        private int tapeSize = 0;
+
+        private String[] pool = new String[16];
+
+        private int poolSize = 0;
+
+        private final HashMap<String, Integer> keyPool = new HashMap<>();
+
+        // Tape indices of open containers and their children counts
+        private int[] starts = new int[32];
+
+        private long[] counts = new long[32];
+
+        private int depth = 0;
+
+        Builder(JsonReader in) {
+            this.in = in;
+        }
+
+        JsonTape build() throws JsonParsingException {
+            do {
+                if (depth > 0) {
+                    ++counts[depth - 1];
+                }
+                switch (in.peek()) {
+                    case BEGIN_OBJECT:
+                        in.beginObject();
+                        open(OBJECT);
+                        break;
+                    case BEGIN_ARRAY:
+                        in.beginArray();
+                        open(ARRAY);
+                        break;
+                    case STRING:
+                        add(STRING, addString(in.nextString()));
+                        break;
+                    case NUMBER:
+                        if (in.isLongNumber()) {
+                            add(INTEGER, 0);
+                            addRaw(in.nextLong());
+                        } else if (in.isIntegerNumber()) {
+                            add(BIG_INTEGER, addString(in.nextNumber()));
+                        } else {
+                            double value = in.nextDouble();
+                            if (Double.isFinite(value)) {
+                                add(DOUBLE, 0);
+                                addRaw(Double.doubleToRawLongBits(value));
+                            } else {
+                                add(BIG_DOUBLE, addString(in.numberText()));
+                            }
+                        }
+                        break;
+                    case BOOLEAN:
+                        add(in.nextBoolean() ? TRUE : FALSE, 0);
+                        break;
+                    case NULL:
+                        in.nextNull();
+                        add(NULL, 0);
+                        break;
+                    default:
+                        throw new JsonParsingException(
+                            String.format("Expected value but got %s", in.peek()));
+                }
+                closeFinished();
+            } while (depth > 0);
+
+            return new JsonTape(Arrays.copyOf(tape, tapeSize), Arrays.copyOf(pool, poolSize));
+        }
+
+        private void open(int tag) {
+            if (depth == starts.length) {
+                starts = Arrays.copyOf(starts, depth * 2);
+                counts = Arrays.copyOf(counts, depth * 2);
+            }
+            starts[depth] = tapeSize;
+            counts[depth] = 0;
+            ++depth;
+            add(tag, 0);
+            addRaw(0);
+        }
+
+        // Closes containers which have no more elements and reads the key
+        // of the next object member
+        private void closeFinished() throws JsonParsingException {
+            while (depth > 0) {
+                int start = starts[depth - 1];
+                boolean isObject = (tape[start] >>> 56) == OBJECT;
+                if (in.hasNext()) {
+                    if (isObject) {
+                        String key = in.nextName();
+                        Integer idx = keyPool.get(key);
+                        if (idx == null) {
+                            idx = addString(key);
+                            keyPool.put(key, idx);
+                        }
+                        add(STRING, idx);
+                    }
+                    return;
+                }
+                if (isObject) {
+                    in.endObject();
+                } else {
+                    in.endArray();
+                }
+                --depth;
+                int end = tapeSize;
+                add(isObject ? END_OBJECT : END_ARRAY, start);
+                tape[start] = ((long) (isObject ? OBJECT : ARRAY) << 56) | end;
+                tape[start + 1] = counts[depth];
+            }
+        }
+
+        private int addString(String str) {
+            if (poolSize == pool.length) {
+                pool = Arrays.copyOf(pool, poolSize * 2);
+            }
+            pool[poolSize] = str;
+            return poolSize++;
+        }
+
+        private void add(int tag, long payload) {
+            addRaw(((long) tag << 56) | payload);
+        }
+
+        private void addRaw(long x) {
+            if (tapeSize == tape.length) {
+                tape = Arrays.copyOf(tape, tapeSize * 2);
+            }
+            tape[tapeSize++] = x;
+        }
+    }
+}
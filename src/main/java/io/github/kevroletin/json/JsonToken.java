@@ -0,0 +1,23 @@
+package io.github.kevroletin.json;
+
+public enum JsonToken {
+    BEGIN_ARRAY,
+
+    END_ARRAY,
+
+    BEGIN_OBJECT,
+
+    END_OBJECT,
+
+    NAME,
+
+    STRING,
+
+    NUMBER,
+
+    BOOLEAN,
+
+    NULL,
+
+    END_DOCUMENT
+}
@@ -0,0 +1,352 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.SerializationException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/** Streaming writer which emits compact json without building INode tree.
+ *
+ * Output is collected in a fixed size char buffer and written out when the
+ * buffer is full. When writing into OutputStream characters are encoded into
+ * UTF-8 by the writer itself. Strings are escaped the same way as
+ * INode.toJson does, so both produce identical output.
+ */
+public class JsonWriter implements AutoCloseable {
+
+    static final int BUFFER_SIZE = 8192;
+
+    // Scopes
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    // Exactly one of out and bytesOut is not null
+    private final Writer out;
+
+    private final OutputStream bytesOut;
+
+    private final char[] buf = new char[BUFFER_SIZE];
+
+    private int pos = 0;
+
+    private byte[] bytes;
+
+    private int[] stack = new int[32];
+
+    private int stackSize = 1;
+
+    // Newline delimited json: each top level value is followed by a newline
+    private boolean lineDelimited = false;
+
+    public JsonWriter(Writer out) {
+        assert(out != null);
+        this.out = out;
+        this.bytesOut = null;
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /** Writes UTF-8 encoded json. */
+    public JsonWriter(OutputStream out) {
+        assert(out != null);
+        this.out = null;
+        this.bytesOut = out;
+        this.bytes = new byte[BUFFER_SIZE];
+        stack[0] = EMPTY_DOCUMENT;
+    }
+
+    /** Switches writer into newline delimited json mode (NDJSON), so it
+     * accepts any number of top level values and ends each with a newline.
+     */
+    public void setLineDelimited(boolean lineDelimited) {
+        this.lineDelimited = lineDelimited;
+    }
+
+    public boolean isLineDelimited() {
+        return lineDelimited;
+    }
+
+    public void beginObject() throws SerializationException {
+        beforeValue();
+        push(EMPTY_OBJECT);
+        write('{');
+    }
+
+    public void endObject() throws SerializationException {
+        endScope(EMPTY_OBJECT, NONEMPTY_OBJECT, '}');
+    }
+
+    public void beginArray() throws SerializationException {
+        beforeValue();
+        push(EMPTY_ARRAY);
+        write('[');
+    }
+
+    public void endArray() throws SerializationException {
+        endScope(EMPTY_ARRAY, NONEMPTY_ARRAY, ']');
+    }
+
+    public void name(String name) throws SerializationException {
+        assert(name != null);
+        beforeName();
+        writeEscaped(name);
+        write(':');
+    }
+
+    /** Writes name which is already escaped and quoted. */
+    void escapedName(String escaped) throws SerializationException {
+        beforeName();
+        writeRaw(escaped);
+        write(':');
+    }
+
+    public void value(String value) throws SerializationException {
+        if (value == null) {
+            nullValue();
+            return;
+        }
+        beforeValue();
+        writeEscaped(value);
+        afterValue();
+    }
+
+    public void value(long value) throws SerializationException {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeRaw(String.valueOf(value));
+            afterValue();
+            return;
+        }
+        ensureCapacity(20);
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        int len = 1;
+        for (long x = value; x >= 10; x /= 10) {
+            ++len;
+        }
+        int end = pos + len;
+        for (int i = end - 1; i >= pos; --i) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        pos = end;
+        afterValue();
+    }
+
+    public void value(double value) throws SerializationException {
+        if (!Double.isFinite(value)) {
+            throw new SerializationException("Json can't represent " + value);
+        }
+        beforeValue();
+        writeRaw(String.valueOf(value));
+        afterValue();
+    }
+
+    public void value(boolean value) throws SerializationException {
+        beforeValue();
+        writeRaw(value ? "true" : "false");
+        afterValue();
+    }
+
+    public void nullValue() throws SerializationException {
+        beforeValue();
+        writeRaw("null");
+        afterValue();
+    }
+
+    public void flush() throws SerializationException {
+        flushBuffer(true);
+        try {
+            if (out != null) {
+                out.flush();
+            } else {
+                bytesOut.flush();
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write output", e);
+        }
+    }
+
+    @Override
+    public void close() throws SerializationException {
+        flush();
+        try {
+            if (out != null) {
+                out.close();
+            } else {
+                bytesOut.close();
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write output", e);
+        }
+    }
+
+    private void push(int scope) {
+        if (stackSize == stack.length) {
+            int[] newStack = new int[stackSize * 2];
+            System.arraycopy(stack, 0, newStack, 0, stackSize);
+            stack = newStack;
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void beforeName() throws SerializationException {
+        int top = stack[stackSize - 1];
+        if (top == NONEMPTY_OBJECT) {
+            write(',');
+        } else if (top != EMPTY_OBJECT) {
+            throw new IllegalStateException("Name outside of object");
+        }
+        stack[stackSize - 1] = DANGLING_NAME;
+    }
+
+    private void beforeValue() throws SerializationException {
+        switch (stack[stackSize - 1]) {
+            case EMPTY_DOCUMENT:
+                stack[stackSize - 1] = NONEMPTY_DOCUMENT;
+                break;
+            case EMPTY_ARRAY:
+                stack[stackSize - 1] = NONEMPTY_ARRAY;
+                break;
+            case NONEMPTY_ARRAY:
+                write(',');
+                break;
+            case DANGLING_NAME:
+                stack[stackSize - 1] = NONEMPTY_OBJECT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                throw new IllegalStateException("Json document should have single top level value");
+            default:
+                throw new IllegalStateException("Value inside object should follow a name");
+        }
+    }
+
+    private void endScope(int empty, int nonempty, char c) throws SerializationException {
+        int top = stack[stackSize - 1];
+        if (top != empty && top != nonempty) {
+            throw new IllegalStateException(String.format("Unexpected %c", c));
+        }
+        --stackSize;
+        write(c);
+        afterValue();
+    }
+
+    private void afterValue() throws SerializationException {
+        if (lineDelimited && stackSize == 1) {
+            write('\n');
+            stack[0] = EMPTY_DOCUMENT;
+        }
+    }
+
+    private void ensureCapacity(int n) throws SerializationException {
+        if (pos + n > buf.length) {
+            flushBuffer(false);
+        }
+    }
+
+    private void write(char c) throws SerializationException {
+        if (pos == buf.length) {
+            flushBuffer(false);
+        }
+        buf[pos++] = c;
+    }
+
+    private void writeRaw(String str) throws SerializationException {
+        int len = str.length();
+        int off = 0;
+        while (off < len) {
+            if (pos == buf.length) {
+                flushBuffer(false);
+            }
+            int n = Math.min(len - off, buf.length - pos);
+            str.getChars(off, off + n, buf, pos);
+            pos += n;
+            off += n;
+        }
+    }
+
+    // Same escaping as PrintingUtils.escapeString
+    private void writeEscaped(String str) throws SerializationException {
+        write('"');
+        for (int i = 0; i < str.length(); ++i) {
+            ensureCapacity(2);
+            char c = str.charAt(i);
+            switch (c) {
+                case '\b': buf[pos++] = '\\'; buf[pos++] = 'b'; break;
+                case '\f': buf[pos++] = '\\'; buf[pos++] = 'f'; break;
+                case '\n': buf[pos++] = '\\'; buf[pos++] = 'n'; break;
+                case '\r': buf[pos++] = '\\'; buf[pos++] = 'r'; break;
+                case '\t': buf[pos++] = '\\'; buf[pos++] = 't'; break;
+                case '"': buf[pos++] = '\\'; buf[pos++] = '"'; break;
+                default: buf[pos++] = c;
+            }
+        }
+        write('"');
+    }
+
+    private void flushBuffer(boolean endOfInput) throws SerializationException {
+        try {
+            if (out != null) {
+                out.write(buf, 0, pos);
+                pos = 0;
+            } else {
+                encodeBuffer(endOfInput);
+            }
+        } catch (IOException e) {
+            throw new SerializationException("Failed to write output", e);
+        }
+    }
+
+    private void encodeBuffer(boolean endOfInput) throws IOException {
+        int end = pos;
+        // High surrogate at the end of the buffer waits for its pair
+        if (!endOfInput && end > 0 && Character.isHighSurrogate(buf[end - 1])) {
+            --end;
+        }
+        int n = 0;
+        for (int i = 0; i < end; ++i) {
+            if (n + 4 > bytes.length) {
+                bytesOut.write(bytes, 0, n);
+                n = 0;
+            }
+            char c = buf[i];
+            if (c < 0x80) {
+                bytes[n++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[n++] = (byte) (0xc0 | (c >> 6));
+                bytes[n++] = (byte) (0x80 | (c & 0x3f));
+            } else if (!Character.isSurrogate(c)) {
+                bytes[n++] = (byte) (0xe0 | (c >> 12));
+                bytes[n++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                bytes[n++] = (byte) (0x80 | (c & 0x3f));
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(buf[i + 1])) {
+                int cp = Character.toCodePoint(c, buf[++i]);
+                bytes[n++] = (byte) (0xf0 | (cp >> 18));
+                bytes[n++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                bytes[n++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                bytes[n++] = (byte) (0x80 | (cp & 0x3f));
+            } else {
+                // Unpaired surrogate, same replacement as String.getBytes
+                bytes[n++] = '?';
+            }
+        }
+        bytesOut.write(bytes, 0, n);
+        if (end < pos) {
+            buf[0] = buf[end];
+            pos = 1;
+        } else {
+            pos = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JsonWriter{" + "stackSize=" + stackSize + '}';
+    }
+}
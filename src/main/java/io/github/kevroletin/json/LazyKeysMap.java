@@ -0,0 +1,139 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.INode;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/** Read-only map of object members which are indexed on the first access.
+ *
+ * A subclass lists members in the input order from scan: begin with the
+ * number of members, then add a key and a reference to its value for each
+ * of them. The last duplicate key wins like in HashMap. Values are created
+ * by value from their references. Objects with a few keys are searched
+ * linearly, bigger ones get a hash index.
+ *
+ * Not thread-safe: the index is built on the first access.
+ */
+abstract class LazyKeysMap extends AbstractMap<String, INode> {
+
+    // Objects with more keys get a hash index on lookup
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    private boolean scanned = false;
+
+    // Unique keys and references to their values
+    private String[] keys;
+
+    private int[] refs;
+
+    private int size;
+
+    private HashMap<String, Integer> index;
+
+    /** Lists members with begin and add. */
+    protected abstract void scan();
+
+    /** Returns value of the unique key number k with the reference ref. */
+    protected abstract INode value(int k, int ref);
+
+    protected final void begin(int count) {
+        keys = new String[count];
+        refs = new int[count];
+        size = 0;
+        index = count > LINEAR_LOOKUP_LIMIT ? new HashMap<>(count * 2) : null;
+    }
+
+    protected final void add(String key, int ref) {
+        int found = index != null ? index.getOrDefault(key, -1) : linearFind(key);
+        if (found >= 0) {
+            refs[found] = ref;
+            return;
+        }
+        keys[size] = key;
+        refs[size] = ref;
+        if (index != null) {
+            index.put(key, size);
+        }
+        ++size;
+    }
+
+    private void ensureKeys() {
+        if (!scanned) {
+            scan();
+            scanned = true;
+        }
+    }
+
+    private int linearFind(Object key) {
+        for (int k = 0; k < size; ++k) {
+            if (keys[k].equals(key)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private int find(Object key) {
+        ensureKeys();
+        if (index != null) {
+            return index.getOrDefault(key, -1);
+        }
+        return linearFind(key);
+    }
+
+    @Override
+    public INode get(Object key) {
+        int k = find(key);
+        return k < 0 ? null : value(k, refs[k]);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        ensureKeys();
+        return size;
+    }
+
+    @Override
+    public Set<Map.Entry<String, INode>> entrySet() {
+        ensureKeys();
+        return new AbstractSet<Map.Entry<String, INode>>() {
+            @Override
+            public Iterator<Map.Entry<String, INode>> iterator() {
+                return new Iterator<Map.Entry<String, INode>>() {
+                    int k = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return k < size;
+                    }
+
+                    @Override
+                    public Map.Entry<String, INode> next() {
+                        if (k >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<String, INode> res =
+                            new AbstractMap.SimpleImmutableEntry<>(keys[k], value(k, refs[k]));
+                        ++k;
+                        return res;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
@@ -0,0 +1,308 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.ArrayNode;
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/** Lazily parsed nodes behind JsonParser.parseLazy.
+ *
+ * Objects and arrays are ordinary ObjectNode and ArrayNode backed by lazy
+ * read-only collections. On the first access a container splits its text
+ * into children spans using a bracket and quote scan; each child is parsed
+ * on its first access and cached. Subtrees which are never accessed are
+ * only scanned, so errors inside of them are found on access and are thrown
+ * as IllegalStateException caused by JsonParsingException.
+ *
+ * Nodes are not thread-safe: containers are scanned and children are
+ * cached on the first access without synchronization.
+ */
+class LazyNodes {
+
+    static INode parse(String json) throws JsonParsingException {
+        int start = skipSpaces(json, 0, json.length());
+        if (start == json.length()) {
+            throw new JsonParsingException("Unexcepted end of input");
+        }
+        int end = scanValue(json, start, json.length());
+        if (skipSpaces(json, end, json.length()) != json.length()) {
+            throw new JsonParsingException("Trailing input");
+        }
+        return node(json, start, end);
+    }
+
+    // Creates node for a value at json[start, end) without leading and
+    // trailing spaces
+    static INode node(String json, int start, int end) throws JsonParsingException {
+        char c = json.charAt(start);
+        if (c == '{') {
+            return new ObjectNode(new LazyObject(json, start, end));
+        }
+        if (c == '[') {
+            return new ArrayNode(new LazyArray(json, start, end));
+        }
+        JsonReader in = new JsonReader(json, start, end);
+        INode res = JsonParser.parse(in);
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonParsingException("Trailing input");
+        }
+        return res;
+    }
+
+    private static INode nodeUnchecked(String json, int start, int end) {
+        try {
+            return node(json, start, end);
+        } catch (JsonParsingException ex) {
+            throw new IllegalStateException("Failed to parse lazy json node: " + ex.getMessage(), ex);
+        }
+    }
+
+    static int skipSpaces(String json, int pos, int end) {
+        while (pos < end && JsonReader.isSpace(json.charAt(pos))) {
+            ++pos;
+        }
+        return pos;
+    }
+
+    /** Returns position after the value which starts at pos. Only brackets
+     * and quotes are checked, content of the value is not validated.
+     */
+    static int scanValue(String json, int pos, int end) throws JsonParsingException {
+        char c = json.charAt(pos);
+        if (c == '"') {
+            return scanString(json, pos + 1, end);
+        }
+        if (c != '{' && c != '[') {
+            // Scalar ends at a delimiter
+            while (pos < end) {
+                c = json.charAt(pos);
+                if (c == ',' || c == '}' || c == ']' || c == '"' || JsonReader.isSpace(c)) {
+                    break;
+                }
+                ++pos;
+            }
+            return pos;
+        }
+        int depth = 0;
+        while (pos < end) {
+            c = json.charAt(pos++);
+            if (c == '"') {
+                pos = scanString(json, pos, end);
+            } else if (c == '{' || c == '[') {
+                ++depth;
+            } else if (c == '}' || c == ']') {
+                if (--depth == 0) {
+                    return pos;
+                }
+            }
+        }
+        throw new JsonParsingException("Unexcepted end of input");
+    }
+
+    // Returns position after the closing quote of a string body starting at pos
+    static int scanString(String json, int pos, int end) throws JsonParsingException {
+        while (pos < end) {
+            char c = json.charAt(pos++);
+            if (c == '"') {
+                return pos;
+            }
+            if (c == '\\') {
+                ++pos;
+            }
+        }
+        throw new JsonParsingException("Unexcepted end of input");
+    }
+
+    // Decodes string body json[start, end) the same way as JsonReader does
+    private static String unescape(String json, int start, int end) {
+        int slash = json.indexOf('\\', start);
+        if (slash == -1 || slash >= end) {
+            return json.substring(start, end);
+        }
+        StringBuilder res = new StringBuilder(end - start);
+        for (int i = start; i < end; ++i) {
+            char c = json.charAt(i);
+            if (c == '\\') {
+                c = json.charAt(++i);
+                switch (c) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    default:
+                }
+            }
+            res.append(c);
+        }
+        return res.toString();
+    }
+
+    private static int expect(String json, int pos, int end, char expected) throws JsonParsingException {
+        pos = skipSpaces(json, pos, end);
+        if (pos == end) {
+            throw new JsonParsingException("Unexcepted end of input");
+        }
+        char c = json.charAt(pos);
+        if (c != expected) {
+            throw new JsonParsingException(String.format("Expected %c but got %c", expected, c));
+        }
+        return pos + 1;
+    }
+
+    /** Splits container json[start, end) into children. Returns positions:
+     * for arrays pairs of value start and end, for objects additionally key
+     * start and end before each pair.
+     */
+    private static int[] scanChildren(String json, int start, int end, boolean isObject)
+        throws JsonParsingException
+    {
+        char close = isObject ? '}' : ']';
+        int step = isObject ? 4 : 2;
+        int[] res = new int[4 * step];
+        int n = 0;
+        // Position after the opening bracket, the closing one is at end - 1
+        int pos = skipSpaces(json, start + 1, end);
+        int last = end - 1;
+        if (json.charAt(last) != close) {
+            throw new JsonParsingException(
+                String.format("Expected %c but got %c", close, json.charAt(last)));
+        }
+        if (pos == last) {
+            return Arrays.copyOf(res, 0);
+        }
+        while (true) {
+            if (n + step > res.length) {
+                res = Arrays.copyOf(res, res.length * 2);
+            }
+            if (isObject) {
+                pos = expect(json, pos, last, '"');
+                int keyEnd = scanString(json, pos, last);
+                res[n++] = pos;
+                res[n++] = keyEnd - 1;
+                pos = expect(json, keyEnd, last, ':');
+                pos = skipSpaces(json, pos, last);
+            }
+            if (pos == last) {
+                throw new JsonParsingException(
+                    String.format("Failed to parse json: unexpected character %c", close));
+            }
+            int valueEnd = scanValue(json, pos, last);
+            if (valueEnd == pos) {
+                throw new JsonParsingException(
+                    String.format("Failed to parse json: unexpected character %c", json.charAt(pos)));
+            }
+            res[n++] = pos;
+            res[n++] = valueEnd;
+            pos = skipSpaces(json, valueEnd, last);
+            if (pos == last) {
+                return Arrays.copyOf(res, n);
+            }
+            char c = json.charAt(pos);
+            if (c != ',') {
+                throw new JsonParsingException(
+                    String.format("Expected , or %c but got %c", close, c));
+            }
+            pos = skipSpaces(json, pos + 1, last);
+        }
+    }
+
+    private static class LazyArray extends AbstractList<INode> implements RandomAccess {
+        private final String json;
+
+        private final int start;
+
+        private final int end;
+
+        private int[] spans;
+
+        private INode[] children;
+
+        LazyArray(String json, int start, int end) {
+            this.json = json;
+            this.start = start;
+            this.end = end;
+        }
+
+        private void ensureSpans() {
+            if (spans != null) {
+                return;
+            }
+            try {
+                spans = scanChildren(json, start, end, false);
+            } catch (JsonParsingException ex) {
+                throw new IllegalStateException("Failed to parse lazy json node: " + ex.getMessage(), ex);
+            }
+            children = new INode[spans.length / 2];
+        }
+
+        @Override
+        public INode get(int index) {
+            ensureSpans();
+            if (index < 0 || index >= children.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + children.length);
+            }
+            INode res = children[index];
+            if (res == null) {
+                res = nodeUnchecked(json, spans[2 * index], spans[2 * index + 1]);
+                children[index] = res;
+            }
+            return res;
+        }
+
+        @Override
+        public int size() {
+            ensureSpans();
+            return children.length;
+        }
+    }
+
+    private static class LazyObject extends LazyKeysMap {
+        private final String json;
+
+        private final int start;
+
+        private final int end;
+
+        // Spans of keys and values of all members, value reference is the
+        // member number
+        private int[] spans;
+
+        // Values of unique keys
+        private INode[] children;
+
+        LazyObject(String json, int start, int end) {
+            this.json = json;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void scan() {
+            try {
+                spans = scanChildren(json, start, end, true);
+            } catch (JsonParsingException ex) {
+                throw new IllegalStateException("Failed to parse lazy json node: " + ex.getMessage(), ex);
+            }
+            int count = spans.length / 4;
+            begin(count);
+            for (int k = 0; k < count; ++k) {
+                add(unescape(json, spans[4 * k], spans[4 * k + 1]), k);
+            }
+            children = new INode[count];
+        }
+
+        @Override
+        protected INode value(int k, int ref) {
+            INode res = children[k];
+            if (res == null) {
+                res = nodeUnchecked(json, spans[4 * ref + 2], spans[4 * ref + 3]);
+                children[k] = res;
+            }
+            return res;
+        }
+    }
+}
@@ -1,20 +1,48 @@
 package io.github.kevroletin.json;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
-// Implemented as an immutable list
+/** Path to a value, implemented as an immutable list.
+ *
+ * A Location is created for every deserialized value, but it is rendered
+ * only when an error is reported. So a frame keeps a field name or an index
+ * as is and turns it into {name} or [idx] on demand; use value() to get
+ * the text of a frame.
+ */
 public class Location {
+    private static final byte EMPTY = 0;
+    private static final byte STRING = 1;
+    private static final byte FIELD = 2;
+    private static final byte INDEX = 3;
+
     public final Location prev;
 
+    /** Text of a frame created from a string by the constructor or
+     * addString, null for empty locations and for field and index frames.
+     *
+     * @deprecated field and index frames are not rendered in advance, use
+     * value() which renders any frame.
+     */
+    @Deprecated
     public final String value;
 
+    private final byte kind;
+
+    // Field name or a string, null for indices
+    private final String name;
+
+    private final int index;
+
     public Location(String value, Location next) {
-        this.prev = next;
-        this.value = value;
+        this(value == null ? EMPTY : STRING, value, 0, next);
+    }
+
+    private Location(byte kind, String name, int index, Location prev) {
+        this.prev = prev;
+        this.value = kind == STRING ? name : null;
+        this.kind = kind;
+        this.name = name;
+        this.index = index;
     }
 
     static public Location empty() {
@@ -22,30 +50,45 @@ public class Location {
     }
 
     public boolean isNull() {
-        return value == null;
+        return kind == EMPTY;
     }
 
     public Location addField(String name) {
-        return new Location(String.format("{%s}", name), this);
+        return new Location(FIELD, name, 0, this);
     }
 
     public Location addIndex(int idx) {
-        return new Location(String.format("[%d]", idx), this);
+        return new Location(INDEX, null, idx, this);
     }
 
     public Location addString(String value) {
         return new Location(value, this);
     }
 
+    /** Returns text of the last frame or null for an empty location. */
+    public String value() {
+        switch (kind) {
+            case FIELD:
+                return "{" + name + "}";
+            case INDEX:
+                return "[" + index + "]";
+            default:
+                return name;
+        }
+    }
+
     public String join(String sep) {
-        List<String> list = new ArrayList();
+        int n = 0;
+        for (Location p = this; p != null && !p.isNull(); p = p.prev) {
+            ++n;
+        }
+        String[] parts = new String[n];
         Location p = this;
-        while (!p.isNull()) {
-            list.add(p.value);
+        for (int i = n - 1; i >= 0; --i) {
+            parts[i] = p.value();
             p = p.prev;
         }
-        Collections.reverse(list);
-        return list.stream().collect( Collectors.joining(sep) );
+        return String.join(sep, parts);
     }
 
     @Override
@@ -65,7 +108,7 @@ public class Location {
     public int hashCode() {
         int hash = 3;
         hash = 59 * hash + Objects.hashCode(this.prev);
-        hash = 59 * hash + Objects.hashCode(this.value);
+        hash = 59 * hash + Objects.hashCode(this.value());
         return hash;
     }
 
@@ -81,7 +124,7 @@ public class Location {
             return false;
         }
         final Location other = (Location) obj;
-        if (!Objects.equals(this.value, other.value)) {
+        if (!Objects.equals(this.value(), other.value())) {
             return false;
         }
         if (!Objects.equals(this.prev, other.prev)) {
@@ -0,0 +1,75 @@
+package io.github.kevroletin.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/** Decodes UTF-8 file mapped into memory region by region.
+ *
+ * A single MappedByteBuffer can't exceed 2GB, so larger files are mapped in
+ * consecutive regions. File contents stay outside of the Java heap; only the
+ * decoded window of JsonReader is kept there.
+ */
+class MappedFileReader extends Reader {
+
+    static final long REGION_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final long regionSize;
+
+    private long regionStart;
+
+    private Utf8Reader region;
+
+    MappedFileReader(Path path) throws IOException {
+        this(path, REGION_SIZE);
+    }
+
+    MappedFileReader(Path path, long regionSize) throws IOException {
+        // Region should fit the longest UTF-8 sequence
+        assert(regionSize >= 4);
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.regionSize = regionSize;
+        try {
+            this.size = channel.size();
+            mapRegion(0);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void mapRegion(long start) throws IOException {
+        long len = Math.min(regionSize, size - start);
+        MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, start, len);
+        regionStart = start;
+        region = new Utf8Reader(buf, start + len == size);
+    }
+
+    @Override
+    public int read(char[] dst, int off, int len) throws IOException {
+        while (true) {
+            int n = region.read(dst, off, len);
+            if (n != -1) {
+                return n;
+            }
+            // Next region starts from the first byte which wasn't decoded
+            long next = regionStart + region.consumed();
+            if (next >= size) {
+                return -1;
+            }
+            mapRegion(next);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
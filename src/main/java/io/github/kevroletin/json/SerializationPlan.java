@@ -0,0 +1,95 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.PrintingUtils;
+import io.github.kevroletin.json.utils.TypeUtils;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** Reflection metadata which Serializer needs to write objects of a class.
+ *
+ * It is computed once per class and cached in ClassValue, so it doesn't
+ * prevent class unloading.
+ */
+class SerializationPlan {
+
+    static class SerializedField {
+        final Field field;
+
+        final String name;
+
+        // Name escaped and quoted as a json string
+        final String escapedName;
+
+        // Not null if the field can't be made accessible
+        final RuntimeException accessError;
+
+        // Created on demand for each AccessorStrategy
+        private final FieldAccessor[] accessors = new FieldAccessor[AccessorStrategy.values().length];
+
+        SerializedField(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.escapedName = PrintingUtils.escapeString(name);
+            RuntimeException error = null;
+            try {
+                field.setAccessible(true); // to access private fields
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            this.accessError = error;
+        }
+
+        Object get(Object obj, AccessorStrategy strategy) throws SerializationException {
+            if (accessError != null) {
+                throw new SerializationException("Failed to get object field", accessError);
+            }
+            FieldAccessor accessor = accessors[strategy.ordinal()];
+            if (accessor == null) {
+                // Racing threads create equivalent accessors
+                accessor = FieldAccessor.of(field, strategy);
+                accessors[strategy.ordinal()] = accessor;
+            }
+            try {
+                return accessor.get(obj);
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                throw new SerializationException("Failed to get object field", e);
+            }
+        }
+    }
+
+    private static final ClassValue<SerializationPlan> PLANS = new ClassValue<SerializationPlan>() {
+        @Override
+        protected SerializationPlan computeValue(Class<?> cls) {
+            return new SerializationPlan(cls);
+        }
+    };
+
+    static SerializationPlan of(Class<?> cls) {
+        return PLANS.get(cls);
+    }
+
+    // Sorted by name, without references to outer classes
+    final SerializedField[] fields;
+
+    private SerializationPlan(Class<?> cls) {
+        List<Field> allFields = new ArrayList();
+        for (Field f: TypeUtils.getAllFields(cls)) {
+            if (!isSpecialFieldName(f.getName())) {
+                allFields.add(f);
+            }
+        }
+        // Stable sort keeps subclass fields before shadowed superclass fields
+        Collections.sort(allFields, (a, b) -> a.getName().compareTo(b.getName()));
+        this.fields = new SerializedField[allFields.size()];
+        for (int i = 0; i < fields.length; ++i) {
+            fields[i] = new SerializedField(allFields.get(i));
+        }
+    }
+
+    private static boolean isSpecialFieldName(String x) {
+        return x.equals("this") || x.startsWith("this$");
+    }
+}
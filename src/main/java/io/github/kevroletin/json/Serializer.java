@@ -1,16 +1,15 @@
 package io.github.kevroletin.json;
 
+import io.github.kevroletin.json.adapters.DefaultAdapters;
 import io.github.kevroletin.json.exceptions.SerializationException;
 import io.github.kevroletin.json.utils.TypeUtils;
 import io.github.kevroletin.json.AST.*;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
 import static java.util.Collections.newSetFromMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -59,23 +58,13 @@ public class Serializer {
     private INode serializeObject(Object x, Set visited) throws SerializationException {
         markAsVisited(x, visited);
 
-        List<Field> fields = TypeUtils.getAllFields(x.getClass());
+        SerializationPlan.SerializedField[] fields = SerializationPlan.of(x.getClass()).fields;
 
         HashMap<String, INode> map = new HashMap<>();
-        for (Field f: fields) {
-            String name = f.getName();
-            if (!isSpecialFieldName(name)) {
-                f.setAccessible(true); // to access private fields
-                // TODO: check annotations to skip or validate fields
-                Object val;
-                try {
-                    val = f.get(x);
-                } catch (IllegalAccessException | IllegalArgumentException e) {
-                    throw new SerializationException("Failed to get object field", e);
-                }
-                INode value = serialize(val, visited);
-                map.put(name, value);
-            }
+        for (SerializationPlan.SerializedField f: fields) {
+            // TODO: check annotations to skip or validate fields
+            INode value = serialize(f.get(x, config.accessorStrategy), visited);
+            map.put(f.name, value);
         }
 
         clearVisited(x, visited);
@@ -96,9 +85,13 @@ public class Serializer {
         } if (TypeUtils.isSupportedScalar(x)) {
             // TODO: move into type adapters
             if (TypeUtils.isInteger(x)) {
-                return new IntegerNode(String.valueOf(x));
+                return new IntegerNode((long) (Integer) x);
             } else if (TypeUtils.isDouble(x)) {
-                return new DoubleNode(String.valueOf(x));
+                double value = (Double) x;
+                if (!Double.isFinite(value)) {
+                    throw new SerializationException("Json can't represent " + value);
+                }
+                return new DoubleNode(value);
             } else if (TypeUtils.isBoolean(x)) {
                 return new BooleanNode((Boolean)x);
             } else if (TypeUtils.isString(x)) {
@@ -110,8 +103,91 @@ public class Serializer {
         return serializeObject(x, visited);
     }
 
-    private boolean isSpecialFieldName(String x) {
-        return x.equals("this") || x.startsWith("this$");
+    /** Writes object straight into JsonWriter without building INode tree.
+     *
+     * Produces the same json as serialize(x).toJson(). In case of an error
+     * part of the output could be already written.
+     */
+    public void serialize(Object x, JsonWriter out) throws SerializationException {
+        serialize(x, out, newIdentetySet());
+    }
+
+    private void serialize(Object x, JsonWriter out, Set visited) throws SerializationException {
+        if (TypeUtils.isUnsupportedScalar(x)) {
+            throwUnsupportedClass(x.getClass());
+        } if (x == null) {
+            out.nullValue();
+        } else if (TypeUtils.isInteger(x)) {
+            out.value((long) (Integer) x);
+        } else if (TypeUtils.isDouble(x)) {
+            out.value((double) (Double) x);
+        } else if (TypeUtils.isBoolean(x)) {
+            out.value((boolean) (Boolean) x);
+        } else if (TypeUtils.isString(x)) {
+            out.value((String) x);
+        } else if (TypeUtils.isArray(x)) {
+            serializeArray(x, out, visited);
+        } else {
+            serializeObject(x, out, visited);
+        }
+    }
+
+    private void serializeArray(Object x, JsonWriter out, Set visited) throws SerializationException {
+        markAsVisited(x, visited);
+
+        out.beginArray();
+        int len = Array.getLength(x);
+        for (int i = 0; i < len; i++) {
+            serialize(Array.get(x, i), out, visited);
+        }
+        out.endArray();
+
+        clearVisited(x, visited);
+    }
+
+    private void serializeObject(Object x, JsonWriter out, Set visited) throws SerializationException {
+        markAsVisited(x, visited);
+
+        GeneratedCodec codec = codec(x.getClass());
+        if (codec != null) {
+            codec.serialize(x, out, (value) -> serialize(value, out, visited));
+            clearVisited(x, visited);
+            return;
+        }
+
+        SerializationPlan.SerializedField[] fields = SerializationPlan.of(x.getClass()).fields;
+        GeneratedBinder binder = config.accessorStrategy == AccessorStrategy.GENERATED
+            ? BinderGenerator.of(x.getClass())
+            : null;
+
+        out.beginObject();
+        for (int i = 0; i < fields.length; ++i) {
+            SerializationPlan.SerializedField f = fields[i];
+            // Tree keeps the last of same named fields, i.e. the superclass one
+            if (i + 1 < fields.length && fields[i + 1].name.equals(f.name)) {
+                continue;
+            }
+            out.escapedName(f.escapedName);
+            if (binder == null) {
+                serialize(f.get(x, config.accessorStrategy), out, visited);
+            } else if (!binder.write(i, x, out)) {
+                // Binder has the same fields in the same order
+                serialize(binder.get(i, x), out, visited);
+            }
+        }
+        out.endObject();
+
+        clearVisited(x, visited);
+    }
+
+    // Codec registered in Config wins over the one found by ServiceLoader,
+    // like in Deserializer
+    private GeneratedCodec codec(Class<?> cls) {
+        TypeAdapter adapter = config.typeAdapters.get(cls);
+        if (adapter instanceof GeneratedCodec) {
+            return (GeneratedCodec) adapter;
+        }
+        return DefaultAdapters.getCodecs().get(cls);
     }
 
     private void markAsVisited(Object x, Set<Object> visited) throws SerializationException {
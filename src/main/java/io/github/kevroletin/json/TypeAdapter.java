@@ -1,10 +1,23 @@
 package io.github.kevroletin.json;
 
 import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.lang.reflect.Type;
 import java.util.List;
 
 public interface TypeAdapter<T> {
     Maybe<T> deserialize(Deserializer d, List<String> errorsOut, Location loc, INode ast, Type type);
+
+    /** Deserializes the next value straight from the token stream.
+     *
+     * Implementation should consume exactly one value even if it reports
+     * errors. Default implementation builds INode for the value and calls
+     * tree based deserialize.
+     */
+    default Maybe<T> deserialize(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        return deserialize(d, errorsOut, loc, JsonParser.parse(in), type);
+    }
 }
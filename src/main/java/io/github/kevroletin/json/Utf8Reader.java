@@ -0,0 +1,140 @@
+package io.github.kevroletin.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+
+/** Decodes UTF-8 bytes from a heap or direct ByteBuffer on demand.
+ *
+ * Bytes are decoded straight into the caller's buffer, so the input is never
+ * copied into a UTF-16 string as a whole. Position of the source buffer is
+ * not changed. Malformed input is reported as IOException.
+ *
+ * If the buffer is only a part of the input (endOfInput is false), a
+ * multi-byte sequence cut at the end of the buffer is left unread, so the
+ * caller can continue from consumed() with the next part.
+ */
+class Utf8Reader extends Reader {
+
+    private final ByteBuffer src;
+
+    private int pos;
+
+    private final int end;
+
+    private final boolean endOfInput;
+
+    // Second half of a surrogate pair which didn't fit into the last read
+    private char pendingLow = 0;
+
+    Utf8Reader(ByteBuffer src) {
+        this(src, true);
+    }
+
+    Utf8Reader(ByteBuffer src, boolean endOfInput) {
+        this.src = src;
+        this.pos = src.position();
+        this.end = src.limit();
+        this.endOfInput = endOfInput;
+    }
+
+    /** Number of bytes decoded so far. */
+    int consumed() {
+        return pos - src.position();
+    }
+
+    @Override
+    public int read(char[] dst, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        if (pendingLow != 0) {
+            dst[off + n++] = pendingLow;
+            pendingLow = 0;
+        }
+        if (pos == end) {
+            return n == 0 ? -1 : n;
+        }
+
+        ByteBuffer b = src;
+        int p = pos;
+        while (n < len && p < end) {
+            int c = b.get(p);
+            // Fast path for ASCII
+            if (c >= 0) {
+                dst[off + n++] = (char) c;
+                ++p;
+                continue;
+            }
+            if (!endOfInput && p + sequenceLength(c) > end) {
+                break;
+            }
+            if ((c & 0xe0) == 0xc0) {
+                int cp = ((c & 0x1f) << 6) | continuation(p, 1);
+                if (cp < 0x80) {
+                    throw malformed(p);
+                }
+                dst[off + n++] = (char) cp;
+                p += 2;
+            } else if ((c & 0xf0) == 0xe0) {
+                int cp = ((c & 0x0f) << 12) | (continuation(p, 1) << 6) | continuation(p, 2);
+                if (cp < 0x800 || Character.isSurrogate((char) cp)) {
+                    throw malformed(p);
+                }
+                dst[off + n++] = (char) cp;
+                p += 3;
+            } else if ((c & 0xf8) == 0xf0) {
+                int cp = ((c & 0x07) << 18) | (continuation(p, 1) << 12)
+                    | (continuation(p, 2) << 6) | continuation(p, 3);
+                if (cp < 0x10000 || cp > Character.MAX_CODE_POINT) {
+                    throw malformed(p);
+                }
+                dst[off + n++] = Character.highSurrogate(cp);
+                if (n < len) {
+                    dst[off + n++] = Character.lowSurrogate(cp);
+                } else {
+                    pendingLow = Character.lowSurrogate(cp);
+                }
+                p += 4;
+            } else {
+                throw malformed(p);
+            }
+        }
+        pos = p;
+        return n == 0 ? -1 : n;
+    }
+
+    private static int sequenceLength(int c) {
+        if ((c & 0xe0) == 0xc0) {
+            return 2;
+        }
+        if ((c & 0xf0) == 0xe0) {
+            return 3;
+        }
+        return 4;
+    }
+
+    // Payload bits of the i-th byte of a sequence starting at p
+    private int continuation(int p, int i) throws IOException {
+        if (p + i >= end) {
+            throw malformed(p);
+        }
+        int c = src.get(p + i);
+        if ((c & 0xc0) != 0x80) {
+            throw malformed(p);
+        }
+        return c & 0x3f;
+    }
+
+    private IOException malformed(int p) {
+        return new IOException(
+            String.format("Malformed UTF-8 input at byte %d", p - src.position()));
+    }
+
+    @Override
+    public void close() {
+        pos = end;
+        pendingLow = 0;
+    }
+}
@@ -2,8 +2,12 @@ package io.github.kevroletin.json.adapters;
 
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.JsonToken;
 import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.TypeAdapter;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.lang.reflect.Type;
 import java.util.List;
@@ -19,6 +23,15 @@ public abstract class BaseTypeAdapter<T> implements TypeAdapter<T> {
 
     abstract protected Maybe<T> deserializeBody(Deserializer d, List<String> errorsOut, Location loc, INode ast, Type type);
 
+    /** Streaming version of deserializeBody. It is called when the next token
+     * is known to have expected node type.
+     */
+    protected Maybe<T> readBody(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        return deserializeBody(d, errorsOut, loc, JsonParser.parse(in), type);
+    }
+
     @Override
     public Maybe<T> deserialize(Deserializer d, List<String> errorsOut, Location loc, INode ast, Type type) {
         if (ast.isNull()) {
@@ -35,4 +48,23 @@ public abstract class BaseTypeAdapter<T> implements TypeAdapter<T> {
         return deserializeBody(d, errorsOut, loc, ast, type);
     }
 
+    @Override
+    public Maybe<T> deserialize(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            if (canBeNull) {
+                return Maybe.just(null);
+            } else {
+                d.pushError(errorsOut, loc, "Can't be null");
+                return Maybe.nothing();
+            }
+        }
+        if (!d.expectNode(errorsOut, loc, in, this.getNodeType())) {
+            return Maybe.nothing();
+        }
+        return readBody(d, errorsOut, loc, in, type);
+    }
+
 }
@@ -3,7 +3,9 @@ package io.github.kevroletin.json.adapters;
 import io.github.kevroletin.json.AST.BooleanNode;
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonReader;
 import io.github.kevroletin.json.Location;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.lang.reflect.Type;
 import java.util.List;
@@ -19,6 +21,13 @@ public class BooleanAdapter extends BaseTypeAdapter<Boolean> {
         return Maybe.just(((BooleanNode)ast).get());
     }
 
+    @Override
+    protected Maybe<Boolean> readBody(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        return Maybe.just(in.nextBoolean());
+    }
+
     @Override
     protected Class getNodeType() {
         return BooleanNode.class;
@@ -1,13 +1,19 @@
 package io.github.kevroletin.json.adapters;
 
+import io.github.kevroletin.json.GeneratedCodec;
 import io.github.kevroletin.json.TypeAdapter;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
 
 public class DefaultAdapters {
     private final static Map<Class, TypeAdapter> MAP;
 
+    private final static Map<Class, GeneratedCodec> CODECS;
+
     static {
         MAP = new HashMap();
         MAP.put(Integer.class, new IntegerAdapter(true));
@@ -19,9 +25,39 @@ public class DefaultAdapters {
         MAP.put(boolean.class, new BooleanAdapter(false));
         MAP.put(List.class,    new ListAdapter());
         MAP.put(Map.class,     new MapAdapter());
+
+        CODECS = loadCodecs(Thread.currentThread().getContextClassLoader());
+        MAP.putAll(CODECS);
+    }
+
+    /** Codecs generated for @JsonCodec classes, registered in
+     * META-INF/services by the annotation processor. Built-in adapters are
+     * never overridden. Broken entries, like a stale class name, are skipped
+     * so their classes are bound with reflection.
+     */
+    static Map<Class, GeneratedCodec> loadCodecs(ClassLoader loader) {
+        Map<Class, GeneratedCodec> res = new HashMap();
+        Iterator<GeneratedCodec> it = ServiceLoader.load(GeneratedCodec.class, loader).iterator();
+        while (true) {
+            try {
+                if (!it.hasNext()) {
+                    return res;
+                }
+                GeneratedCodec codec = it.next();
+                if (!MAP.containsKey(codec.getType())) {
+                    res.put(codec.getType(), codec);
+                }
+            } catch (ServiceConfigurationError e) {
+                // The iterator moves past the broken entry
+            }
+        }
     }
 
     public static Map<Class, TypeAdapter> getMap() {
         return MAP;
     }
+
+    public static Map<Class, GeneratedCodec> getCodecs() {
+        return CODECS;
+    }
 }
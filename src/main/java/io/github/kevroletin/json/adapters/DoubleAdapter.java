@@ -3,7 +3,9 @@ package io.github.kevroletin.json.adapters;
 import io.github.kevroletin.json.AST.DoubleNode;
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonReader;
 import io.github.kevroletin.json.Location;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.lang.reflect.Type;
 import java.util.List;
@@ -19,14 +21,14 @@ public class DoubleAdapter extends BaseTypeAdapter<Double> {
         if (!d.expectNode(errorsOut, loc, ast, DoubleNode.class)) {
             return Maybe.nothing();
         }
-        Double res;
-        try {
-            res = Double.parseDouble(((DoubleNode)ast).get());
-            return Maybe.just(res);
-        } catch(NumberFormatException ex) {
-            d.pushError(errorsOut, loc, "Failed to parse Double %s", ex.getMessage());
-            return Maybe.nothing();
-        }
+        return Maybe.just(((DoubleNode)ast).doubleValue());
+    }
+
+    @Override
+    protected Maybe<Double> readBody(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        return Maybe.just(in.nextDouble());
     }
 
     @Override
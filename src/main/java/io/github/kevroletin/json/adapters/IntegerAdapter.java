@@ -3,7 +3,9 @@ package io.github.kevroletin.json.adapters;
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.AST.IntegerNode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonReader;
 import io.github.kevroletin.json.Location;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.lang.reflect.Type;
 import java.util.List;
@@ -16,9 +18,35 @@ public class IntegerAdapter extends BaseTypeAdapter<Integer> {
 
     @Override
     public Maybe<Integer> deserializeBody(Deserializer d, List<String> errorsOut, Location loc, INode ast, Type type) {
+        IntegerNode node = (IntegerNode) ast;
+        if (node.fitsLong()) {
+            return fromLong(d, errorsOut, loc, node.longValue());
+        }
+        return parseText(d, errorsOut, loc, node.get());
+    }
+
+    @Override
+    protected Maybe<Integer> readBody(Deserializer d, List<String> errorsOut, Location loc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        if (in.isLongNumber()) {
+            return fromLong(d, errorsOut, loc, in.nextLong());
+        }
+        return parseText(d, errorsOut, loc, in.nextNumber());
+    }
+
+    private Maybe<Integer> fromLong(Deserializer d, List<String> errorsOut, Location loc, long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return Maybe.just((int) value);
+        }
+        // Out of range, report the same error as parsing the text does
+        return parseText(d, errorsOut, loc, String.valueOf(value));
+    }
+
+    private Maybe<Integer> parseText(Deserializer d, List<String> errorsOut, Location loc, String text) {
         Integer res;
         try {
-            res = Integer.parseInt(((IntegerNode)ast).get());
+            res = Integer.parseInt(text);
             return Maybe.just(res);
         } catch(NumberFormatException ex) {
             d.pushError(errorsOut, loc, "Failed to parse Integer %s", ex.getMessage());
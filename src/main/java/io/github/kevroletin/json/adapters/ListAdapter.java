@@ -2,8 +2,11 @@ package io.github.kevroletin.json.adapters;
 
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.JsonToken;
 import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.TypeAdapter;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import io.github.kevroletin.json.utils.TypeUtils;
 import java.lang.reflect.Type;
@@ -41,4 +44,37 @@ public class ListAdapter implements TypeAdapter<List> {
         return Maybe.just(res);
     }
 
+    @Override
+    public Maybe<List> deserialize(Deserializer d, List<String> err, Location arrLoc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Maybe.just(null);
+        }
+        Type elemType = TypeUtils.getGenericParameterTypeNoThrow(err, arrLoc, 0, type);
+        if (elemType == null) {
+            in.skipValue();
+            return Maybe.nothing();
+        }
+
+        if (!d.ensureNodeIsArray(err, arrLoc, in)) {
+            return Maybe.nothing();
+        }
+
+        List res = new ArrayList();
+        in.beginArray();
+        for (int i = 0; in.hasNext(); ++i) {
+            Location valLoc = arrLoc.addIndex(i);
+            Maybe<Object> val = d.deserialize(err, valLoc, in, elemType);
+            if (val.isJust()) {
+                res.add(val.get());
+            } else {
+                res.add(null);
+            }
+        }
+        in.endArray();
+        return Maybe.just(res);
+    }
+
 }
@@ -3,8 +3,12 @@ package io.github.kevroletin.json.adapters;
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.AST.StringNode;
 import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.ErrorList;
+import io.github.kevroletin.json.JsonReader;
+import io.github.kevroletin.json.JsonToken;
 import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.TypeAdapter;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import io.github.kevroletin.json.utils.TypeUtils;
 import java.lang.reflect.Type;
@@ -13,6 +17,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class MapAdapter implements TypeAdapter<Map> {
 
@@ -21,7 +26,7 @@ public class MapAdapter implements TypeAdapter<Map> {
         if (ast.isNull()) {
             return Maybe.just(null);
         }
-        Class<?> arrCls = TypeUtils.getClassFromTypeNoThrow(err, mapLoc, type);
+        Class<?> arrCls = d.getClassFromType(err, mapLoc, type);
         if (arrCls == null) {
             return Maybe.nothing();
         }
@@ -30,7 +35,7 @@ public class MapAdapter implements TypeAdapter<Map> {
         if (keyType == null || valueType == null) {
             return Maybe.nothing();
         }
-        Class keyCls = TypeUtils.getClassFromTypeNoThrow(err, mapLoc, keyType);
+        Class keyCls = d.getClassFromType(err, mapLoc, keyType);
         if (keyCls == null) {
             return Maybe.nothing();
         }
@@ -48,18 +53,87 @@ public class MapAdapter implements TypeAdapter<Map> {
             Location fieldLoc = mapLoc.addField(key);
             INode valAst = astValues.get(key);
             Maybe<Object> val = d.deserialize(err, fieldLoc, valAst, valueType);
-            if (val.isNothing()) {
-                continue;
-            }
-            if (keyCls == String.class) {
-                res.put(key, val.get());
-            } else {
-                Maybe<Object> convertedKey = d.deserialize(err, fieldLoc, new StringNode(key), keyType);
-                if (convertedKey.isJust()) {
-                    res.put(convertedKey.get(), val.get());
-                }
+            putValue(d, err, fieldLoc, res, keyCls, keyType, key, val);
+        }
+
+        return Maybe.just(res);
+    }
+
+    private void putValue(Deserializer d, List<String> err, Location fieldLoc, Map res,
+                          Class keyCls, Type keyType, String key, Maybe<Object> val)
+    {
+        if (val.isNothing()) {
+            return;
+        }
+        if (keyCls == String.class) {
+            res.put(key, val.get());
+        } else {
+            Maybe<Object> convertedKey = d.deserialize(err, fieldLoc, new StringNode(key), keyType);
+            if (convertedKey.isJust()) {
+                res.put(convertedKey.get(), val.get());
             }
         }
+    }
+
+    // Value deserialized from the stream together with its errors
+    private static class Pending {
+        final Maybe<Object> value;
+
+        final List<String> errors;
+
+        Pending(Maybe<Object> value, List<String> errors) {
+            this.value = value;
+            this.errors = errors;
+        }
+    }
+
+    @Override
+    public Maybe<Map> deserialize(Deserializer d, List<String> err, Location mapLoc, JsonReader in, Type type)
+        throws JsonParsingException
+    {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return Maybe.just(null);
+        }
+        Class<?> arrCls = d.getClassFromType(err, mapLoc, type);
+        if (arrCls == null) {
+            in.skipValue();
+            return Maybe.nothing();
+        }
+        Type keyType = TypeUtils.getGenericParameterTypeNoThrow(err, mapLoc, 0, type);
+        Type valueType = TypeUtils.getGenericParameterTypeNoThrow(err, mapLoc, 1, type);
+        if (keyType == null || valueType == null) {
+            in.skipValue();
+            return Maybe.nothing();
+        }
+        Class keyCls = d.getClassFromType(err, mapLoc, keyType);
+        if (keyCls == null) {
+            in.skipValue();
+            return Maybe.nothing();
+        }
+
+        if (!d.ensureNodeIsObject(err, mapLoc, in)) {
+            return Maybe.nothing();
+        }
+
+        // Errors are reported in the order of sorted keys like in the tree
+        // based version, so values are kept until the end of the object
+        TreeMap<String, Pending> pending = new TreeMap();
+        in.beginObject();
+        while (in.hasNext()) {
+            String key = in.nextName();
+            List<String> valErr = ErrorList.buffer(err);
+            Maybe<Object> val = d.deserialize(valErr, mapLoc.addField(key), in, valueType);
+            pending.put(key, new Pending(val, valErr));
+        }
+        in.endObject();
+
+        Map res = new HashMap();
+        for (Map.Entry<String, Pending> e: pending.entrySet()) {
+            String key = e.getKey();
+            err.addAll(e.getValue().errors);
+            putValue(d, err, mapLoc.addField(key), res, keyCls, keyType, key, e.getValue().value);
+        }
 
         return Maybe.just(res);
     }
@@ -0,0 +1,18 @@
+package io.github.kevroletin.json.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/** Marks a class for the json-processor annotation processor.
+ *
+ * The processor generates a GeneratedCodec for the class at compile time and
+ * registers it in META-INF/services, so Deserializer and Serializer bind the
+ * class without reflection. The class should have a non-private default
+ * constructor and accessible non-final fields.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface JsonCodec {
+}
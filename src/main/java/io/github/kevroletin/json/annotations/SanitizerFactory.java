@@ -2,7 +2,18 @@ package io.github.kevroletin.json.annotations;
 
 import io.github.kevroletin.json.ValueSanitizer;
 
+/** Creates sanitizers for @Sanitizer fields.
+ *
+ * Deserializer creates a factory once and keeps its sanitizers. A sanitizer
+ * of a thread safe factory is shared by all threads, otherwise each thread
+ * gets its own sanitizer.
+ */
 @FunctionalInterface
 public interface SanitizerFactory<T extends ValueSanitizer> {
     T create();
+
+    /** True if sanitizers can be used by several threads at once. */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
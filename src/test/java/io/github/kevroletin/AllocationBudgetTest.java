@@ -0,0 +1,171 @@
+package io.github.kevroletin;
+
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.TestTypes.AcceptanceTest;
+import io.github.kevroletin.json.TestTypes.AllSupportedTypesWrapper;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Properties;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Bytes allocated per operation on a fixed corpus should stay within
+ * allocation-budget.properties.
+ *
+ * Allocation is measured with com.sun.management.ThreadMXBean after a
+ * warm up, so caches are filled. The smallest of several rounds is taken
+ * to filter out noise. Budgets hold only for the JDK version they were
+ * measured on, so tests are skipped on other versions and on JVMs without
+ * the bean. When an optimization lowers allocation, lower the budget as
+ * well.
+ */
+public class AllocationBudgetTest {
+
+    static final int WARMUP = 200;
+
+    static final int ROUNDS = 5;
+
+    static final int OPS = 20;
+
+    static final int LARGE_ARRAY = 1000000;
+
+    static com.sun.management.ThreadMXBean bean;
+
+    static Properties budget = new Properties();
+
+    static String wrappers;
+
+    static String records;
+
+    // A large array: every element gets a Location, which should stay cheap
+    // until an error is reported
+    static String largeArray;
+
+    @FunctionalInterface
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            bean = (com.sun.management.ThreadMXBean) threads;
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                bean = null;
+            }
+        }
+        try (InputStream in = AllocationBudgetTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            budget.load(in);
+        }
+        Json json = new Json();
+        wrappers = json.toJson(wrappers(200));
+        records = json.toJson(records(500));
+        int[] large = new int[LARGE_ARRAY];
+        for (int i = 0; i < large.length; ++i) {
+            large[i] = i;
+        }
+        largeArray = json.toJson(large);
+    }
+
+    static AllSupportedTypesWrapper wrapper(int i) {
+        AllSupportedTypesWrapper res = new AllSupportedTypesWrapper();
+        res.intValue = i;
+        res.doubleValue = i / 3.0;
+        res.stringValue = "value \"" + i + "\"";
+        res.booleanValue = i % 2 == 0;
+        res.intArray = new Integer[] {i, i + 1, i + 2};
+        res.doubleArray = new Double[] {i * 0.5, i * 1.5};
+        res.stringArray = new String[] {"a" + i, "b" + i};
+        res.booleanArray = new Boolean[] {true, false};
+        res.objectArray = new AllSupportedTypesWrapper[0];
+        return res;
+    }
+
+    static AllSupportedTypesWrapper[] wrappers(int n) {
+        AllSupportedTypesWrapper[] res = new AllSupportedTypesWrapper[n];
+        for (int i = 0; i < n; ++i) {
+            res[i] = wrapper(i);
+            res[i].object = wrapper(i + n);
+        }
+        return res;
+    }
+
+    static AcceptanceTest[] records(int n) {
+        AcceptanceTest[] res = new AcceptanceTest[n];
+        for (int i = 0; i < n; ++i) {
+            res[i] = new AcceptanceTest(i, "record " + i, String.format("7%010d", i));
+        }
+        return res;
+    }
+
+    static long measure(Op op, int warmup, int ops) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < warmup; ++i) {
+            sink = op.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long res = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; ++r) {
+            long start = bean.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < ops; ++i) {
+                sink = op.run();
+            }
+            res = Math.min(res, (bean.getThreadAllocatedBytes(thread) - start) / ops);
+        }
+        assertNotNull(sink);
+        return res;
+    }
+
+    static void checkBudget(String name, Op op) throws Exception {
+        checkBudget(name, op, WARMUP, OPS);
+    }
+
+    static void checkBudget(String name, Op op, int warmup, int ops) throws Exception {
+        Assume.assumeNotNull(bean);
+        String measuredOn = budget.getProperty("java.specification.version");
+        Assume.assumeTrue(
+            "Budgets are measured on JDK " + measuredOn,
+            System.getProperty("java.specification.version").equals(measuredOn));
+        String limit = budget.getProperty(name);
+        assertNotNull("No budget for " + name, limit);
+        long bytes = measure(op, warmup, ops);
+        assertTrue(
+            String.format("%s allocates %d bytes per operation, budget is %s", name, bytes, limit),
+            bytes <= Long.parseLong(limit));
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        checkBudget("parse.wrappers", () -> JsonParser.parse(wrappers));
+        checkBudget("parse.records", () -> JsonParser.parse(records));
+    }
+
+    @Test
+    public void testFromJson() throws Exception {
+        Json json = new Json();
+        checkBudget("fromJson.wrappers", () -> json.fromJson(wrappers, AllSupportedTypesWrapper[].class));
+        checkBudget("fromJson.records", () -> json.fromJson(records, AcceptanceTest[].class));
+    }
+
+    @Test
+    public void testLargeArray() throws Exception {
+        Json json = new Json();
+        // Few rounds, each operation is long enough to be measured alone
+        checkBudget("fromJson.largeArray", () -> json.fromJson(largeArray, int[].class), 20, 1);
+    }
+
+    @Test
+    public void testToJson() throws Exception {
+        Json json = new Json();
+        AllSupportedTypesWrapper[] w = wrappers(200);
+        AcceptanceTest[] r = records(500);
+        checkBudget("toJson.wrappers", () -> json.toJson(w));
+        checkBudget("toJson.records", () -> json.toJson(r));
+    }
+}
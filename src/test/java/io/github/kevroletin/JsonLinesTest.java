@@ -0,0 +1,124 @@
+package io.github.kevroletin;
+
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.Result;
+import io.github.kevroletin.json.TestTypes.Point;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonLinesTest {
+
+    static String input() {
+        StringBuilder res = new StringBuilder();
+        for (int i = 0; i < 200; ++i) {
+            switch (i % 7) {
+                case 3: res.append("{\"x\": ").append(i).append(".0\n"); break;
+                case 5: res.append("{\"x\": \"").append(i).append("\", \"y\": 1.0}\n"); break;
+                case 6: res.append("\n"); break;
+                default: res.append("{\"x\": ").append(i).append(".0, \"y\": 0.5}\n");
+            }
+        }
+        // Last line without newline
+        res.append("{\"x\": 1.0, \"y\": 2.0}");
+        return res.toString();
+    }
+
+    static List<Result<?>> collect(java.util.Iterator<Result<?>> it) {
+        List<Result<?>> res = new ArrayList<>();
+        it.forEachRemaining(res::add);
+        return res;
+    }
+
+    @Test
+    public void testParallelSameAsSequential() throws Exception {
+        String str = input();
+        List<Result<?>> expected = new Json().readLines(new StringReader(str), Point.class)
+            .collect(Collectors.toList());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int chunkSize: new int[] {1, 7, 64, 1 << 20}) {
+                InputStream in = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+                JsonLines.ParallelIterator it = new JsonLines.ParallelIterator(
+                    new Deserializer(), in, Point.class, executor, 2, chunkSize);
+                assertEquals(expected, collect(it));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCommonPool() throws Exception {
+        String str = input();
+        List<Result<?>> expected = new Json().readLines(new StringReader(str), Point.class)
+            .collect(Collectors.toList());
+        InputStream in = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+        assertEquals(
+            expected,
+            new Json().readLinesParallel(in, Point.class).collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testReadError() throws Exception {
+        InputStream in = new InputStream() {
+            int n = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (n == 0) {
+                    ++n;
+                    return '1';
+                }
+                if (n == 1) {
+                    ++n;
+                    return '\n';
+                }
+                throw new IOException("broken");
+            }
+        };
+        JsonLines.ParallelIterator it = new JsonLines.ParallelIterator(
+            new Deserializer(), in, Integer.class, Runnable::run, 2, 16);
+        List<Result<?>> res = collect(it);
+        assertEquals(2, res.size());
+        assertEquals(1, res.get(0).get());
+        assertEquals(
+            Result.error("Json parsing error: Failed to read input: broken"),
+            res.get(1)
+        );
+    }
+
+    @Test
+    public void testFailFast() throws Exception {
+        String str = "{\"x\": \"a\", \"y\": \"b\", \"z\": [1, 2]}\n{\"x\": 1.0, \"y\": 2.0}\n";
+        List<Result<Point>> res = new Json().withFailFast(true).readLines(new StringReader(str), Point.class)
+            .collect(Collectors.toList());
+        assertEquals(2, res.size());
+        assertEquals(1, res.get(0).getErrors().size());
+        assertEquals(new Point(1.0, 2.0), res.get(1).get());
+    }
+    @Test
+    public void testTrailingInput() throws Exception {
+        String str = "{\"x\": 1.0, \"y\": 2.0} x\n{\"x\": 3.0, \"y\": 4.0}  \n{\"x\": 5.0, \"y\": 6.0}\n";
+        List<Result<Point>> res = new Json().readLines(new StringReader(str), Point.class)
+            .collect(Collectors.toList());
+        assertEquals(3, res.size());
+        assertEquals(Result.error("Json parsing error: Trailing input"), res.get(0));
+        assertEquals(new Point(3.0, 4.0), res.get(1).get());
+        assertEquals(new Point(5.0, 6.0), res.get(2).get());
+
+        InputStream in = new ByteArrayInputStream(str.getBytes(StandardCharsets.UTF_8));
+        assertEquals(res, new Json().readLinesParallel(in, Point.class).collect(Collectors.toList()));
+    }
+}
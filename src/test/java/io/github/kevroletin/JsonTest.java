@@ -1,6 +1,7 @@
 package io.github.kevroletin;
 
 import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AccessorStrategy;
 import io.github.kevroletin.json.Deserializer;
 import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.Result;
@@ -15,15 +16,81 @@ import io.github.kevroletin.json.TestTypes.PrivateField;
 import io.github.kevroletin.json.TypeAdapter;
 import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.junit.Ignore;
 
 public class JsonTest {
 
+    @Test
+    public void testFromJsonPath() throws Exception {
+        Path path = Files.createTempFile("point", ".json");
+        try {
+            Files.write(path, "{\"x\": 1.0, \"y\": 2.0}".getBytes(StandardCharsets.UTF_8));
+            assertEquals(new Point(1.0, 2.0), new Json().fromJson(path, Point.class));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testReadLines() throws Exception {
+        String str = "{\"x\": 1.0, \"y\": 2.0}\n"
+            + "{\"x\": 1.0\n"
+            + "{\"x\": true, \"y\": 2.0}\n"
+            + "\n"
+            + "{\"x\": 3.0, \"y\": 4.0}\n";
+
+        List<Result<Point>> res;
+        try (Stream<Result<Point>> lines = new Json().readLines(new StringReader(str), Point.class)) {
+            res = lines.collect(Collectors.toList());
+        }
+
+        assertEquals(4, res.size());
+        assertEquals(new Point(1.0, 2.0), res.get(0).get());
+        assertEquals(Arrays.asList("Json parsing error: Unexpected end of line"), res.get(1).getErrors());
+        assertTrue(res.get(2).hasErrors());
+        assertEquals(new Point(3.0, 4.0), res.get(3).get());
+    }
+
+    @Test
+    public void testWriteLines() throws Exception {
+        List<Point> points = Arrays.asList(new Point(1.0, 2.0), new Point(3.0, 4.0));
+        StringWriter out = new StringWriter();
+        new Json().writeLines(out, points);
+        assertEquals("{\"x\":1.0,\"y\":2.0}\n{\"x\":3.0,\"y\":4.0}\n", out.toString());
+
+        List<Point> res = new Json().readLines(new StringReader(out.toString()), Point.class)
+            .map(Result::get)
+            .collect(Collectors.toList());
+        assertEquals(points, res);
+    }
+
+    @Test
+    public void testToJsonWriterAndStream() throws Exception {
+        Point p = new Point(1.0, 2.0);
+        String expected = "{\"x\":1.0,\"y\":2.0}";
+
+        StringWriter out = new StringWriter();
+        new Json().toJson(p, out);
+        assertEquals(expected, out.toString());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new Json().toJson(new String[] {"привет"}, bytes);
+        assertEquals("[\"привет\"]", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void acceptanceTest() throws JsonParsingException, DeserializationException {
         Json json = new JsonBuilder()
@@ -598,4 +665,81 @@ public class JsonTest {
                 .fromJson("1", Integer.class)
         );
     }
+
+    @Test()
+    public void testLenientSkip() throws JsonParsingException, DeserializationException {
+        String str = "{\"x\": 1.0, \"extra\": {\"a\": [1 2, tru]}, \"y\": 2.0}";
+        assertTrue(new Json().fromJsonNoThrow(str, Point.class).hasErrors());
+
+        Json json = new JsonBuilder().lenientSkip(true).build();
+        assertEquals(new Point(1.0, 2.0), json.fromJson(str, Point.class));
+        assertEquals(new Point(1.0, 2.0), new Json().withLenientSkip(true).fromJson(str, Point.class));
+        assertEquals(json.config, new Json().withLenientSkip(true).config);
+    }
+
+    @Test()
+    public void testExtract() throws JsonParsingException, DeserializationException {
+        String str = "{\"meta\": {\"x\": [1, 2]}, \"items\": [{\"x\": 1.0, \"y\": 2.0}, "
+            + "{\"price\": 5, \"bad\": \"x\"}]} trailing input is not read";
+        Json json = new Json();
+        assertEquals(new Point(1.0, 2.0), json.extract(str, "/items/0", Point.class));
+        assertEquals((Integer) 5, json.extract(str, "/items/1/price", Integer.class));
+
+        Result<Integer> res = json.extractNoThrow(str, "/items/1/bad", Integer.class);
+        assertTrue(res.hasErrors());
+        assertTrue(res.getErrors().get(0), res.getErrors().get(0).startsWith("{items}[1]{bad} "));
+
+        assertEquals(
+            Arrays.asList("Json pointer /items/2 doesn't match any value"),
+            json.extractNoThrow(str, "/items/2", Integer.class).getErrors());
+
+        try {
+            json.extract(str, "/items/2", Integer.class);
+            fail();
+        } catch (DeserializationException e) {
+            // expected
+        }
+    }
+
+    @Test()
+    public void testMethodHandleAccessors() throws Exception {
+        Json reflection = new Json();
+        Json handles = new JsonBuilder().accessorStrategy(AccessorStrategy.METHOD_HANDLES).build();
+        assertEquals(handles.config, new Json().withAccessorStrategy(AccessorStrategy.METHOD_HANDLES).config);
+
+        String[] inputs = {"{\"value\":10}", "{\"value\":\"x\"}", "{}"};
+        for (Class<?> cls: new Class<?>[] {PrivateField.class, PrivateConstructor.class}) {
+            for (String str: inputs) {
+                Result<?> expected = reflection.fromJsonNoThrow(str, cls);
+                Result<?> res = handles.fromJsonNoThrow(str, cls);
+                assertEquals(str, expected.getErrors(), res.getErrors());
+                if (res.hasValue()) {
+                    assertEquals(reflection.toJson(expected.get()), handles.toJson(res.get()));
+                }
+            }
+        }
+        Point p = handles.fromJson("{\"x\": 1.0, \"y\": 2.0}", Point.class);
+        assertEquals(new Point(1.0, 2.0), p);
+        assertEquals(reflection.toJson(p), handles.toJson(p));
+    }
+
+    @Test()
+    public void testFailFast() throws Exception {
+        Json json = new JsonBuilder().failFast(true).build();
+        assertEquals(json.config, new Json().withMaxErrors(1).config);
+
+        // Trailing input is not checked after the first error
+        String str = "[{\"x\": \"a\", \"y\": true}, {\"x\": 1.0 trailing";
+        Result<Point[]> res = json.fromJsonNoThrow(str, Point[].class);
+        assertFalse(res.hasValue());
+        assertEquals(1, res.getErrors().size());
+        assertTrue(res.getErrors().get(0).startsWith("[0]{x} "));
+
+        Result<?> extracted = new Json().withMaxErrors(2).extractNoThrow(
+            "{\"items\": [{\"x\": 1}, {\"x\": 2}]}", "/items", Point[].class);
+        assertEquals(2, extracted.getErrors().size());
+        assertFalse(extracted.hasValue());
+
+        assertEquals(new Point(1.0, 2.0), json.fromJson("{\"x\": 1.0, \"y\": 2.0}", Point.class));
+    }
 }
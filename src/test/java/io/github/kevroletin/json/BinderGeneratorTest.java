@@ -0,0 +1,152 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.TestTypes.AllSupportedTypesWrapper;
+import io.github.kevroletin.json.TestTypes.Point;
+import io.github.kevroletin.json.TestTypes.PrivateField;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.tools.ToolProvider;
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BinderGeneratorTest {
+
+    public static class Primitives {
+        public int i;
+        public double d;
+        public boolean b;
+        public String s;
+        public int[] arr;
+
+        public Primitives() {}
+    }
+
+    public static class Wide {
+        public long l;
+
+        public Wide() {}
+    }
+
+    static final String[] INPUTS = {
+        "{\"intValue\": 1, \"doubleValue\": 2.5, \"stringValue\": \"s\", \"booleanValue\": true, "
+            + "\"object\": {\"intValue\": null}, \"intArray\": [1, null], \"doubleArray\": null, "
+            + "\"stringArray\": [], \"booleanArray\": [false], \"objectArray\": [{}], \"extra\": [1]}",
+        "{\"intValue\": 12345678901, \"doubleValue\": 2, \"stringValue\": 1, \"booleanValue\": \"x\"}",
+        "{\"intValue\": 123456789012345678901234, \"doubleValue\": null, \"stringValue\": null, "
+            + "\"booleanValue\": null, \"object\": 1, \"intArray\": {}}",
+        "{\"i\": 1, \"d\": 1.5, \"b\": false, \"s\": \"x\", \"arr\": [1, 2]}",
+        "{\"i\": null, \"d\": null, \"b\": null, \"s\": null, \"arr\": null}",
+        "{\"i\": 1.5, \"d\": \"1\", \"b\": 0, \"arr\": [true]}",
+    };
+
+    static String toJson(Serializer s, Object x) throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter w = new JsonWriter(out);
+        s.serialize(x, w);
+        w.flush();
+        return out.toString();
+    }
+
+    static void assertSameAsReflection(Config config, Class<?> cls, String json) throws Exception {
+        Deserializer reflection = new Deserializer(config);
+        Deserializer generated = new Deserializer(config.withAccessorStrategy(AccessorStrategy.GENERATED));
+        Result<?> expected = reflection.deserialize(new JsonReader(json), cls);
+        Result<?> res = generated.deserialize(new JsonReader(json), cls);
+        assertEquals(json, expected.getErrors(), res.getErrors());
+        assertEquals(json, expected.hasValue(), res.hasValue());
+        if (res.hasValue()) {
+            assertEquals(
+                json,
+                toJson(new Serializer(config), expected.get()),
+                toJson(new Serializer(config.withAccessorStrategy(AccessorStrategy.GENERATED)), res.get()));
+        }
+    }
+
+    @Test
+    public void testGenerated() throws Exception {
+        Assume.assumeNotNull(ToolProvider.getSystemJavaCompiler());
+        assertNotNull(BinderGenerator.of(Point.class));
+        assertNotNull(BinderGenerator.of(AllSupportedTypesWrapper.class));
+        assertNotNull(BinderGenerator.of(Primitives.class));
+        assertSame(BinderGenerator.of(Point.class), BinderGenerator.of(Point.class));
+    }
+
+    @Test
+    public void testNotSupported() throws Exception {
+        assertNull(BinderGenerator.of(PrivateField.class));
+        assertNull(BinderGenerator.of(FieldAccessorTest.Fields.class));
+        assertNull(BinderGenerator.of(int.class));
+    }
+
+    @Test
+    public void testSameAsReflection() throws Exception {
+        for (String json: INPUTS) {
+            assertSameAsReflection(new Config(), AllSupportedTypesWrapper.class, json);
+            assertSameAsReflection(new Config(), Primitives.class, json);
+            assertSameAsReflection(new Config(), PrivateField.class, json);
+        }
+    }
+
+    @Test
+    public void testOverriddenAdapter() throws Exception {
+        TypeAdapter<Integer> adapter = new TypeAdapter<Integer>() {
+            @Override
+            public io.github.kevroletin.json.utils.Maybe<Integer> deserialize(
+                Deserializer d, java.util.List<String> err, Location loc,
+                io.github.kevroletin.json.AST.INode ast, java.lang.reflect.Type type)
+            {
+                return io.github.kevroletin.json.utils.Maybe.just(42);
+            }
+        };
+        Config config = new Config().withTypeAdapter(Integer.class, adapter);
+        for (String json: INPUTS) {
+            assertSameAsReflection(config, AllSupportedTypesWrapper.class, json);
+        }
+        Result<AllSupportedTypesWrapper> res = new Deserializer(config.withAccessorStrategy(AccessorStrategy.GENERATED))
+            .deserialize(new JsonReader(INPUTS[0]), AllSupportedTypesWrapper.class);
+        assertEquals((Integer) 42, res.get().intValue);
+    }
+
+    @Test
+    public void testNullToPrimitive() throws Exception {
+        TypeAdapter<Long> adapter = new TypeAdapter<Long>() {
+            @Override
+            public io.github.kevroletin.json.utils.Maybe<Long> deserialize(
+                Deserializer d, java.util.List<String> err, Location loc,
+                io.github.kevroletin.json.AST.INode ast, java.lang.reflect.Type type)
+            {
+                return io.github.kevroletin.json.utils.Maybe.just(null);
+            }
+        };
+        Config config = new Config().withTypeAdapter(long.class, adapter);
+        String json = "{\"l\": 1}";
+        for (AccessorStrategy s: AccessorStrategy.values()) {
+            Result<?> res = new Deserializer(config.withAccessorStrategy(s))
+                .deserialize(new JsonReader(json), Wide.class);
+            assertEquals(
+                s.toString(),
+                Arrays.asList("{l} Failed to set value: "
+                    + FieldAccessor.wrongValue(Wide.class.getField("l"), null)),
+                res.getErrors());
+        }
+    }
+
+    @Test
+    public void testNoCompiler() throws Exception {
+        BinderGenerator.Holder res = BinderGenerator.generate(Point.class, null);
+        assertNull(res.binder);
+        assertTrue(res.fallback, res.fallback.contains("compiler"));
+        assertNotNull(BinderGenerator.fallbackReason(PrivateField.class));
+    }
+
+    @Test
+    public void testFallbackReason() throws Exception {
+        Assume.assumeNotNull(ToolProvider.getSystemJavaCompiler());
+        assertNull(BinderGenerator.fallbackReason(Point.class));
+        BinderGenerator.Holder res = BinderGenerator.generate(Point.class, ToolProvider.getSystemJavaCompiler());
+        assertNotNull(res.binder);
+        assertNull(res.fallback);
+    }
+}
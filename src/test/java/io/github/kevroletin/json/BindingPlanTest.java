@@ -0,0 +1,60 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.TestTypes.AcceptanceTest;
+import io.github.kevroletin.json.TestTypes.Point;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BindingPlanTest {
+
+    static class Base {
+        public Integer b;
+        public Integer value;
+    }
+
+    static class Derived extends Base {
+        public Integer a;
+        public Integer value;
+    }
+
+    static class NoDefaultConstructor {
+        public Integer value;
+
+        public NoDefaultConstructor(Integer value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    public void testCached() {
+        assertSame(BindingPlan.of(Point.class), BindingPlan.of(Point.class));
+    }
+
+    @Test
+    public void testFieldsSortedWithSuperclass() {
+        BindingPlan plan = BindingPlan.of(Derived.class);
+        String[] names = new String[plan.fields.length];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = plan.fields[i].name;
+        }
+        assertArrayEquals(new String[] {"a", "b", "value", "value"}, names);
+        assertEquals(0, plan.indexOf("a"));
+        assertEquals(2, plan.indexOf("value"));
+        assertEquals(-1, plan.indexOf("c"));
+    }
+
+    @Test
+    public void testSanitizerResolved() {
+        BindingPlan plan = BindingPlan.of(AcceptanceTest.class);
+        int baz = plan.indexOf("baz");
+        assertTrue(baz >= 0);
+        assertTrue(plan.fields[baz].hasSanitizer);
+        assertFalse(plan.fields[plan.indexOf("foo")].hasSanitizer);
+    }
+
+    @Test
+    public void testConstructor() {
+        assertNotNull(BindingPlan.of(Point.class).constructor);
+        assertNull(BindingPlan.of(NoDefaultConstructor.class).constructor);
+    }
+}
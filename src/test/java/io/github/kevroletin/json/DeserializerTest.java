@@ -9,8 +9,17 @@ import io.github.kevroletin.json.TestTypes.BooleanWrapper;
 import io.github.kevroletin.json.TestTypes.Point;
 import io.github.kevroletin.json.TestTypes.IntegerWrapper;
 import io.github.kevroletin.json.TestTypes.StringWrapper;
+import io.github.kevroletin.TelephoneNumber;
+import io.github.kevroletin.json.TestTypes.AllSupportedTypesWrapper;
+import io.github.kevroletin.json.TestTypes.GenericWrapper;
+import io.github.kevroletin.json.adapters.DefaultAdapters;
+import io.github.kevroletin.json.utils.TypeToken;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import org.junit.Test;
@@ -245,6 +254,213 @@ public class DeserializerTest {
         );
     }
 
+    static void assertSameAsTree(Deserializer d, String json, Type type) throws Exception {
+        Result<?> tree = d.deserialize(JsonParser.parse(json), type);
+        Result<?> stream = d.deserialize(new JsonReader(json), type);
+        assertEquals(json, tree.getErrors(), stream.getErrors());
+        assertEquals(json, tree.hasValue(), stream.hasValue());
+        if (tree.hasValue()) {
+            assertTrue(json, Objects.deepEquals(tree.get(), stream.get()));
+        }
+    }
+
+    static class Shadowed extends IntegerWrapper {
+        public Integer value;
+    }
+
+    @Test
+    public void testStreamingSameAsTree() throws Exception {
+        Deserializer d = new Deserializer()
+            .withTypeAdapter(TelephoneNumber.class, new TelephoneNumber.TelephoneNumberAdapter());
+
+        assertSameAsTree(d, "{\"x\": 1.0, \"y\": 2.0}", Point.class);
+        assertSameAsTree(d, "{\"y\": 2.0, \"z\": [1, {\"a\": []}], \"x\": 1.0}", Point.class);
+        assertSameAsTree(d, "{\"y\": true, \"x\": \"1\"}", Point.class);
+        assertSameAsTree(d, "{\"y\": 1.0}", Point.class);
+        assertSameAsTree(d, "{\"x\": true, \"x\": 1.0, \"y\": 2.0}", Point.class);
+        assertSameAsTree(d, "[1, 2]", Point.class);
+        assertSameAsTree(d, "null", Point.class);
+        assertSameAsTree(d, "[1, null, true, 2.0, 3]", Integer[].class);
+        assertSameAsTree(d, "[1, null, 3]", int[].class);
+        assertSameAsTree(d, "[[{\"value\": 1}], [{\"value\": true}, {}]]", IntegerWrapper[][].class);
+        assertSameAsTree(d, "{\"value\": 1}", Shadowed.class);
+        assertSameAsTree(d, "{\"value\": \"1\"}", Shadowed.class);
+        assertSameAsTree(d, "{\"b\": [1, true], \"a\": null, \"c\": {}}",
+                         new TypeToken<Map<String, List<Integer>>>(){}.getType());
+        assertSameAsTree(d, "{\"badKey\": true, \"71234567890\": 1, \"70000000000\": false}",
+                         new TypeToken<Map<TelephoneNumber, Boolean>>(){}.getType());
+        assertSameAsTree(d, "[{\"badKey\": true}, {\"anotherBadKey\": false}]",
+                         new TypeToken<List<Map<TelephoneNumber, Boolean>>>(){}.getType());
+        assertSameAsTree(d,
+            "{\"intValue\": 1, \"doubleValue\": 1, \"stringValue\": 1, \"booleanValue\": 1,"
+            + " \"object\": {\"intValue\": null}, \"intArray\": [1.0], \"doubleArray\": {},"
+            + " \"stringArray\": [\"a\", 1], \"booleanArray\": [true], \"objectArray\": [null, {}]}",
+            AllSupportedTypesWrapper.class);
+    }
+
+    @Test
+    public void testStreamingConsumesWholeValue() throws Exception {
+        JsonReader in = new JsonReader("[{\"x\": [true, {}], \"y\": 1}, {\"x\": 1.0, \"y\": 2.0}]");
+        Deserializer d = new Deserializer();
+        in.beginArray();
+        assertTrue(d.deserialize(in, Point.class).hasErrors());
+        assertEquals(new Point(1.0, 2.0), d.deserialize(in, Point.class).get());
+        in.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, in.peek());
+    }
+
+    // List<Integer> which counts how many times its class is resolved
+    static class CountingListType implements ParameterizedType {
+        int rawTypeCalls = 0;
+
+        @Override
+        public Type[] getActualTypeArguments() {
+            return new Type[] {Integer.class};
+        }
+
+        @Override
+        public Type getRawType() {
+            ++rawTypeCalls;
+            return List.class;
+        }
+
+        @Override
+        public Type getOwnerType() {
+            return null;
+        }
+    }
+
+    @Test
+    public void testHandlerCache() throws Exception {
+        CountingListType listType = new CountingListType();
+        GenericArrayType arrType = () -> listType;
+        Deserializer d = new Deserializer();
+
+        List<Integer>[] res = (List<Integer>[]) d.deserialize(
+            JsonParser.parse("[[1], [2, 3], []]"), arrType).get();
+        assertEquals(Arrays.asList(2, 3), res[1]);
+        assertEquals(1, listType.rawTypeCalls);
+
+        d.deserialize(new JsonReader("[[1], [2, 3], []]"), arrType).get();
+        assertEquals(1, listType.rawTypeCalls);
+
+        // New config, new cache
+        d.withTypeAdapter(Point.class, DefaultAdapters.getMap().get(Integer.class))
+            .deserialize(new JsonReader("[[1]]"), arrType);
+        assertEquals(2, listType.rawTypeCalls);
+    }
+
+    @Test
+    public void testHandlerCacheKeepsErrors() throws Exception {
+        Type varType = GenericWrapper.class.getTypeParameters()[0];
+        Deserializer d = new Deserializer();
+        for (int i = 0; i < 2; ++i) {
+            assertEquals(
+                Arrays.asList("Can't turn type variable into a class", "Can't turn type variable into a class"),
+                d.deserialize(JsonParser.parse("{}"), varType).getErrors());
+        }
+    }
+
+    @Test
+    public void testConfigCopiesAdapters() {
+        Map<Class, TypeAdapter> adapters = new HashMap<>();
+        Config config = new Config(adapters);
+        adapters.put(Point.class, DefaultAdapters.getMap().get(Integer.class));
+        assertTrue(config.typeAdapters.isEmpty());
+        try {
+            config.typeAdapters.put(Point.class, null);
+            fail();
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    @Test
+    public void testMaxErrors() throws Exception {
+        String input = "[{\"x\": \"a\", \"y\": 1.0}, {\"x\": true, \"y\": \"b\"}, {}]";
+        List<String> all = new Deserializer().deserialize(new JsonReader(input), Point[].class).getErrors();
+        assertEquals(5, all.size());
+
+        Deserializer d = new Deserializer(new Config().withMaxErrors(2));
+        for (Result<Point[]> res: Arrays.asList(
+                 d.deserialize(JsonParser.parse(input), Point[].class),
+                 d.deserialize(new JsonReader(input), Point[].class)))
+        {
+            assertFalse(res.hasValue());
+            assertEquals(all.subList(0, 2), res.getErrors());
+        }
+
+        d = new Deserializer(new Config().withFailFast(true));
+        Result<Point[]> res = d.deserialize(new JsonReader(input), Point[].class);
+        assertEquals(all.subList(0, 1), res.getErrors());
+
+        // Limit is not reached
+        d = new Deserializer(new Config().withMaxErrors(5));
+        assertEquals(all, d.deserialize(new JsonReader(input), Point[].class).getErrors());
+    }
+
+    public static class Duplicates {
+        public int x;
+        public String s;
+        public String y;
+        public Map<String, Integer> m;
+    }
+
+    @Test
+    public void testMaxErrorsDuplicateKey() throws Exception {
+        String[] inputs = {
+            "{\"x\": \"bad\", \"x\": 1, \"s\": \"q\", \"y\": \"r\", \"m\": {}}",
+            "{\"x\": 1, \"s\": \"q\", \"y\": \"r\", \"m\": {\"k\": \"bad\", \"k\": 1}}",
+        };
+        for (String input: inputs) {
+            for (Config config: Arrays.asList(new Config().withFailFast(true), new Config().withMaxErrors(5))) {
+                Deserializer d = new Deserializer(config);
+                for (Result<Duplicates> res: Arrays.asList(
+                         d.deserialize(JsonParser.parse(input), Duplicates.class),
+                         d.deserialize(new JsonReader(input), Duplicates.class)))
+                {
+                    // Errors of replaced values are not counted
+                    assertTrue(input, res.hasValue());
+                    assertEquals(input, Arrays.asList(), res.getErrors());
+                    assertEquals(1, res.get().x);
+                }
+            }
+        }
+
+        String input = "{\"x\": \"a\", \"x\": \"b\", \"x\": \"c\", \"x\": \"d\", \"x\": \"e\", "
+            + "\"s\": \"q\", \"y\": \"r\", \"m\": {}}";
+        List<String> all = new Deserializer().deserialize(new JsonReader(input), Duplicates.class).getErrors();
+        assertEquals(1, all.size());
+        Result<Duplicates> res = new Deserializer(new Config().withMaxErrors(5))
+            .deserialize(new JsonReader(input), Duplicates.class);
+        assertTrue(res.hasValue());
+        assertEquals(all, res.getErrors());
+    }
+
+    @Test
+    public void testMaxErrorsOrder() throws Exception {
+        String input = "{\"x\": \"no\", \"y\": 1, \"s\": 1, \"m\": {\"b\": \"no\", \"a\": \"no\"}}";
+        List<String> all = new Deserializer().deserialize(new JsonReader(input), Duplicates.class).getErrors();
+        assertEquals(5, all.size());
+        for (int max = 1; max <= all.size(); ++max) {
+            Deserializer d = new Deserializer(new Config().withMaxErrors(max));
+            assertEquals(all.subList(0, max), d.deserialize(new JsonReader(input), Duplicates.class).getErrors());
+            assertEquals(all.subList(0, max), d.deserialize(JsonParser.parse(input), Duplicates.class).getErrors());
+        }
+    }
+
+    @Test
+    public void testMaxErrorsConfig() {
+        assertEquals(new Config().withMaxErrors(1), new Config().withFailFast(true));
+        assertEquals(new Config(), new Config().withFailFast(true).withFailFast(false));
+        assertNotEquals(new Config(), new Config().withMaxErrors(3));
+        assertEquals(3, new Config().withMaxErrors(3).withLenientSkip(true).maxErrors);
+        try {
+            new Config().withMaxErrors(0);
+            fail();
+        } catch (RuntimeException e) {
+        }
+    }
+
     @Test
     public void testDeserialize() {
     }
@@ -0,0 +1,98 @@
+package io.github.kevroletin.json;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ErrorListTest {
+
+    @Test
+    public void testFormatting() {
+        ErrorList err = new ErrorList();
+        err.add(Location.empty().addField("x"), "Expected %s", new Object[] {"number"});
+        err.add("plain");
+        assertEquals(Arrays.asList("{x} Expected number", "plain"), err);
+        // Formatting doesn't change the list
+        assertEquals(err.get(0), err.get(0));
+        assertEquals(2, err.size());
+    }
+
+    @Test
+    public void testSnapshot() {
+        ErrorList err = new ErrorList();
+        StringBuilder value = new StringBuilder("a");
+        AtomicInteger count = new AtomicInteger(1);
+        Object[] args = {value, count, 2};
+        err.add(Location.empty(), "Got %s %s %d", args);
+        value.append("b");
+        count.set(5);
+        assertEquals(Arrays.asList("Got a 1 2"), err);
+        // Caller's array is not changed
+        assertSame(value, args[0]);
+    }
+
+    @Test
+    public void testLimit() {
+        ErrorList err = new ErrorList(2);
+        err.add("a");
+        try {
+            err.add("b");
+            fail();
+        } catch (ErrorList.LimitReached ex) {
+        }
+        ErrorList res = err.truncate();
+        assertEquals(Arrays.asList("a", "b"), res);
+        assertTrue(ErrorList.isTruncated(res));
+        assertFalse(ErrorList.isTruncated(err));
+    }
+
+    @Test
+    public void testBufferCountsWhenMoved() {
+        ErrorList err = new ErrorList(3);
+        List<String> first = ErrorList.buffer(err);
+        List<String> second = ErrorList.buffer(err);
+        List<String> dropped = ErrorList.buffer(err);
+        first.add("a");
+        second.add("b");
+        dropped.add("x");
+        dropped.add("y");
+        dropped.add("z");
+        err.addAll(second);
+        err.addAll(first);
+        assertEquals(Arrays.asList("b", "a"), err);
+        try {
+            err.add("c");
+            fail();
+        } catch (ErrorList.LimitReached ex) {
+        }
+        // Errors in the order of the list
+        assertEquals(Arrays.asList("b", "a", "c"), err.truncate());
+    }
+
+    @Test
+    public void testTruncateMovedBuffer() {
+        ErrorList err = new ErrorList(2);
+        List<String> buf = ErrorList.buffer(err);
+        buf.add("a");
+        buf.add("b");
+        buf.add("c");
+        try {
+            err.addAll(buf);
+            fail();
+        } catch (ErrorList.LimitReached ex) {
+        }
+        assertEquals(Arrays.asList("a", "b"), err.truncate());
+    }
+
+    @Test
+    public void testUnlimited() {
+        ErrorList err = new ErrorList(Config.UNLIMITED_ERRORS);
+        for (int i = 0; i < 100; ++i) {
+            err.add("e");
+        }
+        assertEquals(100, err.size());
+        assertTrue(ErrorList.buffer(err) instanceof ErrorList);
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.kevroletin.json;
+
+import java.lang.reflect.Field;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class FieldAccessorTest {
+
+    static class Fields {
+        private int primitive = 1;
+
+        private String str = "a";
+
+        private final Integer fin = 2;
+
+        public Fields() {}
+
+        private Fields(int primitive) {
+            this.primitive = primitive;
+        }
+    }
+
+    static class Throwing {
+        Throwing() {
+            throw new IllegalStateException("test");
+        }
+    }
+
+    static FieldAccessor accessor(String name, AccessorStrategy strategy) throws Exception {
+        Field f = Fields.class.getDeclaredField(name);
+        f.setAccessible(true);
+        return FieldAccessor.of(f, strategy);
+    }
+
+    @Test
+    public void testGetSet() throws Exception {
+        for (AccessorStrategy s: AccessorStrategy.values()) {
+            Fields obj = new Fields();
+            FieldAccessor primitive = accessor("primitive", s);
+            FieldAccessor str = accessor("str", s);
+            assertEquals(1, primitive.get(obj));
+            assertEquals("a", str.get(obj));
+            primitive.set(obj, 10);
+            str.set(obj, null);
+            assertEquals(10, obj.primitive);
+            assertNull(obj.str);
+        }
+    }
+
+    @Test
+    public void testFinalField() throws Exception {
+        for (AccessorStrategy s: AccessorStrategy.values()) {
+            Fields obj = new Fields();
+            FieldAccessor fin = accessor("fin", s);
+            assertEquals(2, fin.get(obj));
+            fin.set(obj, 3);
+            assertEquals(3, fin.get(obj));
+        }
+    }
+
+    @Test
+    public void testWrongValue() throws Exception {
+        for (AccessorStrategy s: AccessorStrategy.values()) {
+            Object[] values = {"1", null};
+            for (Object value: values) {
+                try {
+                    accessor("primitive", s).set(new Fields(), value);
+                    fail(s + " " + value);
+                } catch (IllegalArgumentException e) {
+                    assertEquals(FieldAccessor.wrongValue(Fields.class.getDeclaredField("primitive"), value),
+                                 e.getMessage());
+                }
+            }
+            try {
+                accessor("str", s).get("not Fields");
+                fail(s.toString());
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testInstantiator() throws Exception {
+        for (AccessorStrategy s: AccessorStrategy.values()) {
+            Object obj = Instantiator.of(Fields.class.getConstructor(), s).newInstance();
+            assertEquals(1, ((Fields) obj).primitive);
+
+            try {
+                Instantiator.of(Throwing.class.getDeclaredConstructor(), s).newInstance();
+                fail(s.toString());
+            } catch (java.lang.reflect.InvocationTargetException e) {
+                assertEquals("test", e.getCause().getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.Json;
+import io.github.kevroletin.TelephoneNumber;
+import io.github.kevroletin.json.adapters.DefaultAdapters;
+import io.github.kevroletin.json.annotations.Sanitizer;
+import io.github.kevroletin.json.exceptions.SerializationException;
+import io.github.kevroletin.json.utils.TypeToken;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GeneratedCodecTest {
+
+    public static class Item {
+        public int id;
+
+        public Double price;
+
+        @Sanitizer(cls = TelephoneNumber.TelephoneAsStringSanitizerFactory.class)
+        public String phone;
+
+        public Item[] children;
+
+        public List<Integer> tags;
+
+        public Item() {}
+    }
+
+    // Same fields as Item, bound with reflection
+    public static class PlainItem {
+        public int id;
+
+        public Double price;
+
+        @Sanitizer(cls = TelephoneNumber.TelephoneAsStringSanitizerFactory.class)
+        public String phone;
+
+        public PlainItem[] children;
+
+        public List<Integer> tags;
+
+        public PlainItem() {}
+    }
+
+    // What the annotation processor generates for Item. It is registered as
+    // a type adapter, so other tests don't see it.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static final class ItemCodec extends GeneratedCodec<Item> {
+
+        public ItemCodec() {
+            super(Item.class,
+                  new String[] {"children", "id", "phone", "price", "tags"},
+                  new Type[] {
+                      Item[].class,
+                      int.class,
+                      String.class,
+                      Double.class,
+                      new TypeToken<List<Integer>>() {}.getType(),
+                  },
+                  new Class[] {null, null, TelephoneNumber.TelephoneAsStringSanitizerFactory.class, null, null});
+        }
+
+        @Override
+        protected Item newInstance() throws Exception {
+            return new Item();
+        }
+
+        @Override
+        protected void assign(int idx, Item obj, Object value) {
+            switch (idx) {
+                case 0: obj.children = (Item[]) value; return;
+                case 1: obj.id = (Integer) value; return;
+                case 2: obj.phone = (String) value; return;
+                case 3: obj.price = (Double) value; return;
+                case 4: obj.tags = (List<Integer>) value; return;
+                default: throw new IllegalArgumentException("No field " + idx);
+            }
+        }
+
+        @Override
+        protected Object get(int idx, Item obj) {
+            switch (idx) {
+                case 0: return obj.children;
+                case 1: return obj.id;
+                case 2: return obj.phone;
+                case 3: return obj.price;
+                case 4: return obj.tags;
+                default: throw new IllegalArgumentException("No field " + idx);
+            }
+        }
+
+        @Override
+        protected boolean write(int idx, Item obj, JsonWriter out) throws SerializationException {
+            switch (idx) {
+                case 1: {
+                    out.value((long) obj.id);
+                    return true;
+                }
+                case 2: {
+                    out.value(obj.phone);
+                    return true;
+                }
+                default: return false;
+            }
+        }
+    }
+
+    static final String[] INPUTS = {
+        "{\"id\": 1, \"price\": 2.5, \"phone\": \"8-900-000-00-00\", \"children\": [{\"id\": 2, "
+            + "\"price\": null, \"phone\": \"79000000000\", \"children\": null, \"tags\": null}], "
+            + "\"tags\": [1, 2], \"extra\": {}}",
+        "{\"id\": null, \"price\": 1, \"phone\": \"1\", \"children\": [{}, null], \"tags\": [\"1\"], \"id\": 1.5}",
+        "{\"phone\": null}",
+        "[1]",
+        "null",
+    };
+
+    static Config config() {
+        return new Config().withTypeAdapter(Item.class, new ItemCodec());
+    }
+
+    @Test
+    public void testNotRegistered() {
+        assertNull(DefaultAdapters.getCodecs().get(Item.class));
+    }
+
+    @Test
+    public void testSameAsReflection() throws Exception {
+        Json json = new Json(config());
+        for (String input: INPUTS) {
+            Result<?> expected = json.fromJsonNoThrow(input, PlainItem.class);
+            Result<?> res = json.fromJsonNoThrow(input, Item.class);
+            assertEquals(input, expected.getErrors(), res.getErrors());
+            assertEquals(input, expected.hasValue(), res.hasValue());
+
+            Result<?> tree = new Deserializer(config()).deserialize(JsonParser.parse(input), Item.class);
+            assertEquals(input, expected.getErrors(), tree.getErrors());
+        }
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        Json json = new Json(config());
+        Item item = new Item();
+        item.id = 1;
+        item.phone = "79000000000";
+        item.children = new Item[] {new Item()};
+        item.children[0].phone = "79000000001";
+        assertEquals(
+            "{\"children\":[{\"children\":null,\"id\":0,\"phone\":\"79000000001\",\"price\":null,\"tags\":null}],"
+                + "\"id\":1,\"phone\":\"79000000000\",\"price\":null,\"tags\":null}",
+            json.toJson(item));
+
+        Item res = json.fromJson(json.toJson(item), Item.class);
+        assertEquals(1, res.id);
+        assertEquals("79000000000", res.phone);
+        assertEquals(0, res.children[0].id);
+    }
+
+    @Test
+    public void testCircularDependency() {
+        Item item = new Item();
+        item.children = new Item[] {item};
+        try {
+            new Json(config()).toJson(item);
+            fail();
+        } catch (SerializationException e) {
+            assertEquals("Circular dependency", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testOverriddenAdapter() throws Exception {
+        TypeAdapter<Item> adapter = (d, err, loc, ast, type) -> {
+            d.pushError(err, loc, "custom");
+            return io.github.kevroletin.json.utils.Maybe.nothing();
+        };
+        Result<Item> res = new Json(config()).withTypeAdapter(Item.class, adapter).fromJsonNoThrow("{}", Item.class);
+        assertEquals(Arrays.asList("custom"), res.getErrors());
+    }
+}
@@ -7,6 +7,12 @@ import io.github.kevroletin.json.AST.DoubleNode;
 import io.github.kevroletin.json.AST.INode;
 import io.github.kevroletin.json.AST.IntegerNode;
 import io.github.kevroletin.json.AST.ObjectNode;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -194,6 +200,124 @@ public class JsonParserTest {
         );
     }
 
+    @Test
+    public void testParseMixedDocument() throws Exception {
+        Map<String, INode> inner = new HashMap();
+        inner.put("t", ScalarNode.create(true));
+        inner.put("n", ScalarNode.create(null));
+        Map<String, INode> m = new HashMap();
+        m.put("arr", new ArrayNode(Arrays.asList(
+            ScalarNode.create(-1),
+            new DoubleNode("2.5e-3"),
+            ScalarNode.create("a\tb"),
+            new ObjectNode(inner),
+            new ArrayNode(Arrays.asList())
+        )));
+        m.put("f", ScalarNode.create(false));
+        assertEquals(
+            new ObjectNode(m),
+            JsonParser.parse(" { \"arr\" : [ -1 , 2.5e-3, \"a\\tb\", {\"t\":true,\"n\":null}, [ ] ] , \"f\": false } ")
+        );
+    }
+
+    @Test
+    public void testParseMalformed() throws Exception {
+        String[] inputs = {
+            "", " ", "[1,]", "[1 2]", "{\"a\" 1}", "{\"a\": 1,}", "{1: 2}",
+            "tru", "nul", "falsy", "-", "1.", "1e", "1e+", "\"abc", "[", "{", "}", "1 2"
+        };
+        for (String str: inputs) {
+            try {
+                JsonParser.parse(str);
+                fail("Expected parsing error for " + str);
+            } catch (JsonParsingException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParseReader() throws Exception {
+        String str = "{\"child\": [{}, [], {\"x\": true, \"y\": false}, [1, 2.0, \"3\"]]}";
+        assertEquals(
+            JsonParser.parse(str),
+            JsonParser.parse(new StringReader(str))
+        );
+    }
+
+    @Test
+    public void testParseBytes() throws Exception {
+        String str = "{\"имя\": [{}, [], {\"x\": \"😀\", \"y\": false}, [1, 2.0, \"3\"]]}";
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        byte[] padded = new byte[bytes.length + 4];
+        System.arraycopy(bytes, 0, padded, 2, bytes.length);
+        padded[0] = padded[1] = padded[padded.length - 1] = padded[padded.length - 2] = '#';
+
+        assertEquals(JsonParser.parse(str), JsonParser.parse(padded, 2, bytes.length));
+
+        ByteBuffer heap = ByteBuffer.wrap(padded, 2, bytes.length);
+        assertEquals(JsonParser.parse(str), JsonParser.parse(heap));
+        assertEquals(2, heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes);
+        direct.flip();
+        assertEquals(JsonParser.parse(str), JsonParser.parse(direct));
+    }
+
+    @Test
+    public void testParsePath() throws Exception {
+        String str = "{\"a\": [1, 2.5, \"привет\"], \"b\": null}";
+        Path path = Files.createTempFile("json", ".json");
+        try {
+            Files.write(path, str.getBytes(StandardCharsets.UTF_8));
+            assertEquals(JsonParser.parse(str), JsonParser.parse(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testParseMissingPath() throws Exception {
+        JsonParser.parse(Paths.get("/no/such/file.json"));
+    }
+
+    @Test(expected = JsonParsingException.class)
+    public void testParseMalformedBytes() throws Exception {
+        byte[] bytes = {'"', (byte) 0xd0, '"'};
+        JsonParser.parse(bytes, 0, bytes.length);
+    }
+
+    @Test
+    public void testNumbersPrint() throws Exception {
+        String str = "[1.50,2e3,-0,12345678901234567890]";
+        assertEquals("[1.5,2000.0,0,12345678901234567890]", JsonParser.parse(str).toJson());
+
+        JsonReader in = new JsonReader(str);
+        in.setLosslessNumbers(true);
+        INode lossless = JsonParser.parse(in);
+        assertEquals(str, lossless.toJson());
+        assertEquals(JsonParser.parse(str), lossless);
+    }
+
+    @Test
+    public void testOverflowingExponent() throws Exception {
+        String str = "[1e400,-1E+999,2.5e-3]";
+        assertEquals("[1e400,-1E+999,0.0025]", JsonParser.parse(str).toJson());
+        assertEquals("[1e400,-1E+999,0.0025]", JsonParser.parseLazy(str).toJson());
+        assertEquals(Double.POSITIVE_INFINITY, ((DoubleNode) JsonParser.parse("1e400")).doubleValue(), 0);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInfinityText() {
+        new DoubleNode("Infinity");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInfinityValue() {
+        new DoubleNode(Double.NaN);
+    }
+
     @Test
     public void testJsonPrint() throws JsonParsingException {
         assertEquals(
@@ -0,0 +1,60 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonPointerTest {
+
+    static final String DOC =
+        "{\"skip\": {\"a\": [1, {\"b\": \"}\"}]}, \"a/b\": 1, \"m~n\": 2, \"\": 3, "
+            + "\"items\": [10, [20, 21], {\"price\": 30}], \"items\": 0}";
+
+    static String valueAt(String pointer) throws JsonParsingException {
+        JsonReader in = new JsonReader(DOC);
+        Location loc = JsonPointer.compile(pointer).seek(in);
+        if (loc == null) {
+            return null;
+        }
+        return loc + " " + JsonParser.parse(in).toJson();
+    }
+
+    @Test
+    public void testSeek() throws Exception {
+        assertEquals(" " + JsonParser.parse(DOC).toJson(), valueAt(""));
+        assertEquals("{a/b} 1", valueAt("/a~1b"));
+        assertEquals("{m~n} 2", valueAt("/m~0n"));
+        assertEquals("{} 3", valueAt("/"));
+        assertEquals("{items}[0] 10", valueAt("/items/0"));
+        assertEquals("{items}[1][1] 21", valueAt("/items/1/1"));
+        assertEquals("{items}[2]{price} 30", valueAt("/items/2/price"));
+    }
+
+    @Test
+    public void testNoValue() throws Exception {
+        String[] pointers = {
+            "/missing", "/items/3", "/items/-", "/items/01", "/items/x", "/items/0/a", "/a~1b/0", "/skip/a/1/c"
+        };
+        for (String p: pointers) {
+            assertNull(p, valueAt(p));
+        }
+    }
+
+    @Test
+    public void testInvalidPointer() throws Exception {
+        String[] pointers = {"a", "/a~", "/a~2"};
+        for (String p: pointers) {
+            try {
+                JsonPointer.compile(p);
+                fail(p);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        assertEquals("/a~1b/0", JsonPointer.compile("/a~1b/0").toString());
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.INode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonQueryTest {
+
+    static final String DOC =
+        "{\"orders\": [{\"lines\": [{\"sku\": \"a\"}, {\"sku\": \"b\", \"n\": 2}]}, "
+            + "{\"lines\": []}, {\"lines\": [{\"sku\": \"c\"}, {\"qty\": [1 2]}]}, 5], "
+            + "\"x.y\": {\"k\": 1, \"l\": [true]}, \"list\": [0, 1, 2]}";
+
+    static List<String> streaming(String path, String json) throws Exception {
+        List<String> res = new ArrayList<>();
+        JsonQuery.compile(path).evaluate(json, (INode x) -> res.add(x.toJson()));
+        return res;
+    }
+
+    static List<String> tree(String path, INode root) throws Exception {
+        List<String> res = new ArrayList<>();
+        JsonQuery.compile(path).evaluate(root, (INode x) -> res.add(x.toJson()));
+        return res;
+    }
+
+    static void assertQuery(String path, String... expected) throws Exception {
+        List<String> exp = new ArrayList<>();
+        for (String x: expected) {
+            exp.add(x);
+        }
+        assertEquals(path, exp, streaming(path, DOC));
+    }
+
+    @Test
+    public void testStreaming() throws Exception {
+        assertQuery("$.orders[*].lines[*].sku", "\"a\"", "\"b\"", "\"c\"");
+        assertQuery("$.orders[2].lines[0].sku", "\"c\"");
+        assertQuery("$['x.y'].*", "1", "[true]");
+        assertQuery("$[\"x.y\"].l[0]", "true");
+        assertQuery("$.list[1]", "1");
+        assertQuery("$.list[3]");
+        assertQuery("$.list.a");
+        assertQuery("$.missing[*]");
+    }
+
+    @Test
+    public void testTree() throws Exception {
+        String json = "{\"a\": [{\"b\": 1}, {\"b\": [2, 3]}, {\"c\": 4}], \"d\": {\"e\": 5, \"f\": 6}}";
+        String[] paths = {
+            "$.a[*].b", "$.a[1].b[*]", "$.a[*].*", "$.d.e", "$.d[0]", "$.a.b", "$.a[5]", "$"
+        };
+        for (String path: paths) {
+            List<String> expected = streaming(path, json);
+            assertEquals(path, expected, tree(path, JsonParser.parseLazy(json)));
+            assertEquals(path, expected, tree(path, JsonParser.parse(json)));
+            assertEquals(path, expected, tree(path, JsonTape.parse(json).root()));
+        }
+    }
+
+    @Test
+    public void testTreeOrder() throws Exception {
+        // More keys than a small HashMap keeps in insertion order
+        String json = "{\"z\": 1, \"y\": 2, \"x\": 3, \"w\": 4, \"b\": 5, \"a\": 6, \"m\": 7, "
+            + "\"q\": 8, \"c\": 9, \"zz\": 10, \"k\": {\"2\": 11, \"1\": 12}}";
+        for (String path: new String[] {"$.*", "$.k.*", "$[*]"}) {
+            List<String> expected = streaming(path, json);
+            assertEquals(path, expected, tree(path, JsonParser.parse(json)));
+            assertEquals(path, expected, tree(path, JsonParser.parseLazy(json)));
+            assertEquals(path, expected, tree(path, JsonTape.parse(json).root()));
+        }
+
+        // A repeated key is matched once by the tree
+        String dup = "{\"a\": 1, \"b\": 2, \"a\": 3}";
+        assertEquals(Arrays.asList("1", "2", "3"), streaming("$.*", dup));
+        assertEquals(Arrays.asList("3", "2"), tree("$.*", JsonParser.parse(dup)));
+        assertEquals(Arrays.asList("3", "2"), tree("$.*", JsonParser.parseLazy(dup)));
+    }
+
+    @Test
+    public void testInvalidPath() throws Exception {
+        String[] paths = {"", "a", "$.", "$..a", "$[", "$[1", "$['a]", "$[x]", "$a", "$[99999999999]"};
+        for (String path: paths) {
+            try {
+                JsonQuery.compile(path);
+                fail(path);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonReaderTest {
+
+    // Returns input one character at a time to exercise buffer refills
+    static class SlowReader extends Reader {
+        final Reader in;
+
+        SlowReader(String str) {
+            this.in = new StringReader(str);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return in.read(cbuf, off, Math.min(len, 1));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    static List<String> tokens(JsonReader in) throws JsonParsingException {
+        List<String> res = new ArrayList();
+        while (true) {
+            JsonToken t = in.peek();
+            switch (t) {
+                case BEGIN_ARRAY: in.beginArray(); res.add("["); break;
+                case END_ARRAY: in.endArray(); res.add("]"); break;
+                case BEGIN_OBJECT: in.beginObject(); res.add("{"); break;
+                case END_OBJECT: in.endObject(); res.add("}"); break;
+                case NAME: res.add("name:" + in.nextName()); break;
+                case STRING: res.add("string:" + in.nextString()); break;
+                case NUMBER:
+                    boolean isInt = in.isIntegerNumber();
+                    res.add((isInt ? "int:" : "double:") + in.nextNumber());
+                    break;
+                case BOOLEAN: res.add("bool:" + in.nextBoolean()); break;
+                case NULL: in.nextNull(); res.add("null"); break;
+                case END_DOCUMENT: return res;
+            }
+        }
+    }
+
+    static final String DOC =
+        "{\"a\": [1, -2.5e3, \"x\\ty\"], \"b\": {\"c\": true, \"d\": null}, \"e\": false}";
+
+    static final List<String> DOC_TOKENS = Arrays.asList(
+        "{",
+        "name:a", "[", "int:1", "double:-2.5e3", "string:x\ty", "]",
+        "name:b", "{", "name:c", "bool:true", "name:d", "null", "}",
+        "name:e", "bool:false",
+        "}"
+    );
+
+    @Test
+    public void testTokens() throws Exception {
+        assertEquals(DOC_TOKENS, tokens(new JsonReader(DOC)));
+    }
+
+    @Test
+    public void testTokensWithRefills() throws Exception {
+        assertEquals(DOC_TOKENS, tokens(new JsonReader(new SlowReader(DOC))));
+    }
+
+    @Test
+    public void testLongValuesAcrossBuffer() throws Exception {
+        StringBuilder longStr = new StringBuilder();
+        StringBuilder longNum = new StringBuilder("1");
+        for (int i = 0; i < 3 * JsonReader.BUFFER_SIZE; ++i) {
+            longStr.append((char)('a' + i % 26));
+            longNum.append(i % 10);
+        }
+        String doc = "[\"" + longStr + "\", " + longNum + ", \"" + longStr + "\\n\"]";
+
+        assertEquals(
+            Arrays.asList("[", "string:" + longStr, "int:" + longNum, "string:" + longStr + "\n", "]"),
+            tokens(new JsonReader(new StringReader(doc)))
+        );
+    }
+
+    @Test
+    public void testInputStream() throws Exception {
+        byte[] bytes = "[\"привет\", \"\uD83D\uDE00\"]".getBytes(StandardCharsets.UTF_8);
+        assertEquals(
+            Arrays.asList("[", "string:привет", "string:\uD83D\uDE00", "]"),
+            tokens(new JsonReader(new ByteArrayInputStream(bytes)))
+        );
+    }
+
+    @Test
+    public void testSkipValue() throws Exception {
+        JsonReader in = new JsonReader(DOC);
+        in.beginObject();
+        assertEquals("a", in.nextName());
+        in.skipValue();
+        assertEquals("b", in.nextName());
+        in.skipValue();
+        assertEquals("e", in.nextName());
+        assertFalse(in.nextBoolean());
+        in.endObject();
+        assertEquals(JsonToken.END_DOCUMENT, in.peek());
+    }
+
+    @Test
+    public void testSelectName() throws Exception {
+        String[] names = {"a", "b", "b", "cd"};
+        for (JsonReader in: new JsonReader[] {
+                 new JsonReader("{\"b\": 1, \"c\": 2, \"c\\d\": 3, \"\": 4, \"a\": 5, \"cde\": 6}"),
+                 new JsonReader(new SlowReader("{\"b\": 1, \"c\": 2, \"cd\": 3, \"\": 4, \"a\": 5, \"cde\": 6}"))
+             })
+        {
+            in.beginObject();
+            List<Integer> res = new ArrayList<>();
+            while (in.hasNext()) {
+                res.add(in.selectName(names));
+                in.skipValue();
+            }
+            in.endObject();
+            assertEquals(Arrays.asList(1, -1, 3, -1, 0, -1), res);
+        }
+    }
+
+    @Test
+    public void testSkipValueUnchecked() throws Exception {
+        for (JsonReader in: new JsonReader[] {
+                 new JsonReader(DOC), new JsonReader(new SlowReader(DOC))
+             })
+        {
+            in.beginObject();
+            assertEquals("a", in.nextName());
+            in.skipValueUnchecked();
+            assertEquals("b", in.nextName());
+            in.skipValueUnchecked();
+            assertEquals("e", in.nextName());
+            in.skipValueUnchecked();
+            in.endObject();
+            assertEquals(JsonToken.END_DOCUMENT, in.peek());
+        }
+    }
+
+    @Test
+    public void testSkipValueUncheckedMalformed() throws Exception {
+        JsonReader in = new JsonReader("[{\"a\": [1 2, tru], \"]\": \"}\\\"\"}, 3]");
+        in.beginArray();
+        in.skipValueUnchecked();
+        assertEquals(3, in.nextLong());
+        in.endArray();
+        assertEquals(JsonToken.END_DOCUMENT, in.peek());
+
+        try {
+            in = new JsonReader("[[1, 2]");
+            in.beginArray();
+            in.skipValueUnchecked();
+            in.endArray();
+            fail();
+        } catch (JsonParsingException e) {
+            assertEquals("Unexcepted end of input", e.getMessage());
+        }
+
+        try {
+            in = new JsonReader("[[1, 2");
+            in.beginArray();
+            in.skipValueUnchecked();
+            fail();
+        } catch (JsonParsingException e) {
+            assertEquals("Unexcepted end of input", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testSkippedChars() throws Exception {
+        JsonReader in = new JsonReader("{\"a\": [1, 2], \"b\": \"xyz\", \"c\": {}}");
+        in.beginObject();
+        in.nextName();
+        in.skipValueUnchecked();
+        assertEquals(8, in.getSkippedChars());
+        in.nextName();
+        in.skipValue();
+        in.nextName();
+        in.skipValue();
+        assertEquals(8 + 7 + 4, in.getSkippedChars());
+    }
+
+    @Test
+    public void testWrongToken() throws Exception {
+        JsonReader in = new JsonReader("[1]");
+        try {
+            in.beginObject();
+            fail();
+        } catch (JsonParsingException e) {
+            assertEquals("Expected BEGIN_OBJECT but got BEGIN_ARRAY", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        String[] inputs = {"[1 2]", "{\"a\" 1}", "{\"a\": 1,}", "[1,]", "01", "1 2", "tru"};
+        for (String str: inputs) {
+            try {
+                tokens(new JsonReader(new SlowReader(str)));
+                fail("Expected parsing error for " + str);
+            } catch (JsonParsingException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testPosition() throws Exception {
+        JsonReader in = new JsonReader(new SlowReader("  [true]"));
+        in.beginArray();
+        assertEquals(3, in.getPosition());
+        in.nextBoolean();
+        assertEquals(7, in.getPosition());
+    }
+
+    static List<String> lines(JsonReader in) throws JsonParsingException {
+        List<String> res = new ArrayList();
+        while (true) {
+            try {
+                if (in.peek() == JsonToken.END_DOCUMENT) {
+                    return res;
+                }
+                res.add(JsonParser.parse(in).toJson());
+            } catch (JsonParsingException e) {
+                res.add("error");
+                in.skipLine();
+            }
+        }
+    }
+
+    @Test
+    public void testLineDelimited() throws Exception {
+        String str = "{\"a\": [1, 2]}\n\n  \"x\"  \r\n3\n";
+        for (JsonReader in: Arrays.asList(new JsonReader(str), new JsonReader(new SlowReader(str)))) {
+            in.setLineDelimited(true);
+            assertEquals(Arrays.asList("{\"a\":[1,2]}", "\"x\"", "3"), lines(in));
+        }
+
+        JsonReader empty = new JsonReader("\n \n");
+        empty.setLineDelimited(true);
+        assertEquals(JsonToken.END_DOCUMENT, empty.peek());
+    }
+
+    @Test
+    public void testLineDelimitedRecovery() throws Exception {
+        String str = "{\"a\": 1\n[2]\n\"abc\n3\n tru\n\n4 5\n6";
+        List<String> expected = Arrays.asList("error", "[2]", "error", "3", "error", "4", "error", "6");
+        for (JsonReader in: Arrays.asList(new JsonReader(str), new JsonReader(new SlowReader(str)))) {
+            in.setLineDelimited(true);
+            assertEquals(expected, lines(in));
+        }
+    }
+
+    @Test
+    public void testDoubles() throws Exception {
+        String[] inputs = {
+            "0.0", "-0.0", "1.5", "0.1", "0.001", "-123.456e10", "123.456e-10", "1e22", "1e23",
+            "9007199254740993.0", "123456789012345678901234567890.5", "0.30000000000000004",
+            "2.2250738585072014e-308", "4.9e-324", "1.7976931348623157e308", "1e400", "1e-400",
+            "0.000000000000000000000000000001", "12345678901234567890e-5", "7", "-9223372036854775808"
+        };
+        Random random = new Random(42);
+        List<String> all = new ArrayList(Arrays.asList(inputs));
+        for (int i = 0; i < 1000; ++i) {
+            all.add(String.valueOf(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+            all.add(random.nextInt(1000000) + "." + random.nextInt(1000) + "e" + (random.nextInt(60) - 30));
+        }
+        for (String str: all) {
+            JsonReader in = new JsonReader(str);
+            assertEquals(str, Double.doubleToLongBits(Double.parseDouble(str)),
+                         Double.doubleToLongBits(in.nextDouble()));
+        }
+    }
+
+    @Test
+    public void testLongs() throws Exception {
+        String[] inputs = {"0", "-0", "7", "-7", "999999999999999999", "1000000000000000000",
+                           "9223372036854775807", "-9223372036854775808"};
+        for (String str: inputs) {
+            JsonReader in = new JsonReader(str);
+            assertTrue(str, in.isLongNumber());
+            assertEquals(Long.parseLong(str), in.nextLong());
+        }
+
+        String[] notLongs = {"9223372036854775808", "-9223372036854775809", "1.0", "1e2"};
+        for (String str: notLongs) {
+            JsonReader in = new JsonReader(str);
+            assertFalse(str, in.isLongNumber());
+            try {
+                in.nextLong();
+                fail(str);
+            } catch (JsonParsingException e) {
+                // expected
+            }
+            assertEquals(str, in.nextNumber());
+        }
+    }
+}
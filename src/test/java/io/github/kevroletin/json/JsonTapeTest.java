@@ -0,0 +1,89 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.TestTypes.AllSupportedTypesWrapper;
+import io.github.kevroletin.json.TestTypes.Point;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import io.github.kevroletin.json.utils.TypeToken;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonTapeTest {
+
+    static final String[] DOCS = {
+        "1", "-2.5e-3", "\"str\"", "true", "false", "null", "[]", "{}",
+        "12345678901234567890",
+        "{\"a\": [1, 2.0, \"3\", null, true, [], {}], \"b\": {\"c\": {\"d\": [[[]]]}}}",
+        "{\"x\": 1, \"x\": 2, \"y\": 3}",
+        "{\"k0\": 0, \"k1\": 1, \"k2\": 2, \"k3\": 3, \"k4\": 4, \"k5\": 5, \"k6\": 6, "
+            + "\"k7\": 7, \"k8\": 8, \"k9\": 9, \"k3\": 33}",
+        "[{\"key\": 1}, {\"key\": 2}, {\"key\": 3}]",
+        "[1e400, -2E999, 0.5]"
+    };
+
+    @Test
+    public void testSameAsTree() throws Exception {
+        for (String doc: DOCS) {
+            INode tree = JsonParser.parse(doc);
+            INode view = JsonTape.parse(doc).root();
+            assertEquals(doc, tree, view);
+            assertEquals(doc, view, tree);
+            assertEquals(doc, tree.hashCode(), view.hashCode());
+            assertEquals(doc, tree.toJson(), view.toJson());
+        }
+    }
+
+    @Test
+    public void testKeysPooled() throws Exception {
+        JsonTape tape = JsonTape.parse("[{\"key\": \"a\"}, {\"key\": \"b\"}, {\"key\": \"c\"}]");
+        // One shared key and three values
+        assertEquals(4, tape.poolSize());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws Exception {
+        ObjectNode obj = (ObjectNode) JsonTape.parse("{\"a\": 1}").root();
+        obj.get().remove("a");
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        String[] inputs = {"[1, 2", "{\"a\": }", "[1] 2", ""};
+        for (String str: inputs) {
+            try {
+                JsonTape.parse(str);
+                fail(str);
+            } catch (JsonParsingException e) {
+                // expected
+            }
+        }
+    }
+
+    static void assertDeserializesSameAsTree(String json, Type type) throws Exception {
+        Deserializer d = new Deserializer();
+        Result<?> tree = d.deserialize(JsonParser.parse(json), type);
+        Result<?> tape = d.deserialize(JsonTape.parse(json).root(), type);
+        assertEquals(json, tree.getErrors(), tape.getErrors());
+        assertEquals(json, tree.hasValue(), tape.hasValue());
+        if (tree.hasValue()) {
+            assertTrue(json, Objects.deepEquals(tree.get(), tape.get()));
+        }
+    }
+
+    @Test
+    public void testDeserializer() throws Exception {
+        assertDeserializesSameAsTree("{\"x\": 1.0, \"y\": 2.0}", Point.class);
+        assertDeserializesSameAsTree("{\"y\": true, \"x\": \"1\"}", Point.class);
+        assertDeserializesSameAsTree(
+            "{\"intValue\": 1, \"doubleValue\": 2.0, \"stringValue\": \"s\", \"booleanValue\": true, "
+                + "\"intArray\": [1, 2], \"objectArray\": [{\"intValue\": 3}], \"object\": {}}",
+            AllSupportedTypesWrapper.class);
+        assertDeserializesSameAsTree("{\"b\": [1, true], \"a\": null, \"c\": {}}",
+                                     new TypeToken<Map<String, List<Integer>>>(){}.getType());
+    }
+}
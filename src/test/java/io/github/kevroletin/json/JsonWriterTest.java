@@ -0,0 +1,99 @@
+package io.github.kevroletin.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class JsonWriterTest {
+
+    @Test
+    public void testWriteDocument() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter w = new JsonWriter(out);
+        w.beginObject();
+        w.name("a");
+        w.beginArray();
+        w.value(1);
+        w.value(-2.5);
+        w.value("x\ty");
+        w.nullValue();
+        w.endArray();
+        w.name("b");
+        w.beginObject();
+        w.endObject();
+        w.name("c");
+        w.value(true);
+        w.endObject();
+        w.flush();
+        assertEquals("{\"a\":[1,-2.5,\"x\\ty\",null],\"b\":{},\"c\":true}", out.toString());
+    }
+
+    @Test
+    public void testLongs() throws Exception {
+        long[] values = {0, 7, -7, 10, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long x: values) {
+            StringWriter out = new StringWriter();
+            JsonWriter w = new JsonWriter(out);
+            w.value(x);
+            w.flush();
+            assertEquals(String.valueOf(x), out.toString());
+        }
+    }
+
+    @Test
+    public void testUtf8AcrossBuffer() throws Exception {
+        StringBuilder str = new StringBuilder();
+        for (int i = 0; i < 2 * JsonWriter.BUFFER_SIZE; ++i) {
+            str.append(i % 3 == 0 ? "😀" : (i % 3 == 1 ? "ж" : "a"));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonWriter w = new JsonWriter(out);
+        w.beginArray();
+        w.value(str.toString());
+        w.value("€");
+        w.endArray();
+        w.flush();
+
+        String expected = "[\"" + str + "\",\"€\"]";
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testValueWithoutName() throws Exception {
+        JsonWriter w = new JsonWriter(new StringWriter());
+        w.beginObject();
+        w.value(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTwoTopLevelValues() throws Exception {
+        JsonWriter w = new JsonWriter(new StringWriter());
+        w.value(1);
+        w.value(2);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMismatchedEnd() throws Exception {
+        JsonWriter w = new JsonWriter(new StringWriter());
+        w.beginArray();
+        w.endObject();
+    }
+
+    @Test
+    public void testLineDelimited() throws Exception {
+        StringWriter out = new StringWriter();
+        JsonWriter w = new JsonWriter(out);
+        w.setLineDelimited(true);
+        w.value(1);
+        w.beginObject();
+        w.name("a");
+        w.beginArray();
+        w.endArray();
+        w.endObject();
+        w.value("x");
+        w.flush();
+        assertEquals("1\n{\"a\":[]}\n\"x\"\n", out.toString());
+    }
+}
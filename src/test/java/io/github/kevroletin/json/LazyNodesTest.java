@@ -0,0 +1,118 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.AST.ArrayNode;
+import io.github.kevroletin.json.AST.INode;
+import io.github.kevroletin.json.AST.IntegerNode;
+import io.github.kevroletin.json.AST.ObjectNode;
+import io.github.kevroletin.json.TestTypes.AllSupportedTypesWrapper;
+import io.github.kevroletin.json.TestTypes.Point;
+import io.github.kevroletin.json.exceptions.JsonParsingException;
+import io.github.kevroletin.json.utils.TypeToken;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LazyNodesTest {
+
+    static final String[] DOCS = {
+        " {\"a\\nb\": \"x\\\"y\", \"c\\\\\": [\"]\", \"}\", \"\\\\\"]} ",
+        "[1,2,3]",
+        "{\"a\":{\"b\":[{\"c\":-1e5},\"{\"]}}"
+    };
+
+    @Test
+    public void testSameAsTree() throws Exception {
+        for (String[] docs: new String[][] {JsonTapeTest.DOCS, DOCS}) {
+            for (String doc: docs) {
+                INode tree = JsonParser.parse(doc);
+                INode lazy = JsonParser.parseLazy(doc);
+                assertEquals(doc, tree, lazy);
+                assertEquals(doc, lazy, tree);
+                assertEquals(doc, tree.hashCode(), lazy.hashCode());
+                assertEquals(doc, tree.toJson(), lazy.toJson());
+            }
+        }
+    }
+
+    @Test
+    public void testSkippedSubtreeIsNotParsed() throws Exception {
+        INode root = JsonParser.parseLazy("{\"bad\": [1, 2 3, {\"x\" 1}], \"good\": {\"a\": 1}}");
+        ObjectNode good = (ObjectNode) ((ObjectNode) root).get().get("good");
+        assertEquals(new IntegerNode(1), good.get().get("a"));
+
+        ArrayNode bad = (ArrayNode) ((ObjectNode) root).get().get("bad");
+        try {
+            bad.get().size();
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof JsonParsingException);
+        }
+    }
+
+    @Test
+    public void testMalformedScalarOnAccess() throws Exception {
+        INode root = JsonParser.parseLazy("[1, tru, 3]");
+        List<INode> elems = ((ArrayNode) root).get();
+        assertEquals(3, elems.size());
+        assertEquals(new IntegerNode(3), elems.get(2));
+        try {
+            elems.get(1);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof JsonParsingException);
+        }
+    }
+
+    @Test
+    public void testMalformedRoot() throws Exception {
+        String[] inputs = {"[1, 2", "{\"a\": 1", "[1] 2", "", "  ", "\"abc"};
+        for (String str: inputs) {
+            try {
+                JsonParser.parseLazy(str);
+                fail(str);
+            } catch (JsonParsingException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() throws Exception {
+        ObjectNode obj = (ObjectNode) JsonParser.parseLazy("{\"a\": 1}");
+        obj.get().remove("a");
+    }
+
+    static void assertDeserializesSameAsTree(String json, Type type) throws Exception {
+        Deserializer d = new Deserializer();
+        Result<?> tree = d.deserialize(JsonParser.parse(json), type);
+        Result<?> lazy = d.deserialize(JsonParser.parseLazy(json), type);
+        assertEquals(json, tree.getErrors(), lazy.getErrors());
+        assertEquals(json, tree.hasValue(), lazy.hasValue());
+        if (tree.hasValue()) {
+            assertTrue(json, Objects.deepEquals(tree.get(), lazy.get()));
+        }
+    }
+
+    @Test
+    public void testDeserializer() throws Exception {
+        assertDeserializesSameAsTree("{\"x\": 1.0, \"y\": 2.0}", Point.class);
+        assertDeserializesSameAsTree("{\"y\": true, \"x\": \"1\"}", Point.class);
+        assertDeserializesSameAsTree(
+            "{\"intValue\": 1, \"doubleValue\": 2.0, \"stringValue\": \"s\", \"booleanValue\": true, "
+                + "\"intArray\": [1, 2], \"objectArray\": [{\"intValue\": 3}], \"object\": {}}",
+            AllSupportedTypesWrapper.class);
+        assertDeserializesSameAsTree("{\"b\": [1, true], \"a\": null, \"c\": {}}",
+                                     new TypeToken<Map<String, List<Integer>>>(){}.getType());
+    }
+
+    @Test
+    public void testDeserializerSkipsUnusedSubtree() throws Exception {
+        INode root = JsonParser.parseLazy("{\"x\": 1.0, \"y\": 2.0, \"unused\": [1, 2 3]}");
+        Result<Point> res = new Deserializer().deserialize(root, Point.class);
+        assertTrue(res.getErrors().toString(), res.hasValue());
+        assertEquals(new Point(1.0, 2.0), res.get());
+    }
+}
@@ -53,4 +53,46 @@ public class LocationTest {
             Location.empty().addIndex(1).addIndex(2).addIndex(3).join("+")
         );
     }
+
+    @Test
+    public void testValue() {
+        Location loc = Location.empty().addField("a%s").addIndex(-1);
+        assertEquals("[-1]", loc.value());
+        assertEquals("{a%s}", loc.prev.value());
+        assertNull(Location.empty().value());
+        assertEquals("{a%s}[-1] x 1", loc.toStringWith("x %d", 1));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testValueField() {
+        Location loc = Location.empty().addString("+").addField("a").addIndex(7);
+        assertEquals("+", loc.prev.prev.value);
+        assertEquals("x", new Location("x", null).value);
+        // Field and index frames are rendered only by value()
+        assertNull(loc.value);
+        assertNull(loc.prev.value);
+        assertNull(Location.empty().value);
+    }
+
+    @Test
+    public void testEquals() {
+        assertEquals(
+            Location.empty().addString("{a}").addString("[1]"),
+            Location.empty().addField("a").addIndex(1)
+        );
+        assertEquals(
+            Location.empty().addString("{a}").addString("[1]").hashCode(),
+            Location.empty().addField("a").addIndex(1).hashCode()
+        );
+        assertNotEquals(
+            Location.empty().addField("a"),
+            Location.empty().addField("b")
+        );
+    }
+
+    @Test
+    public void testWithoutEmptyRoot() {
+        assertEquals("x{a}", new Location("x", null).addField("a").toString());
+    }
 }
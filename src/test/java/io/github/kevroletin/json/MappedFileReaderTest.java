@@ -0,0 +1,60 @@
+package io.github.kevroletin.json;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class MappedFileReaderTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    static final String TEXT = "[\"ascii\", \"кириллица\", \"€uro\", \"😀𝄞\"]";
+
+    Path write(String str) throws Exception {
+        File f = tmp.newFile();
+        Files.write(f.toPath(), str.getBytes(StandardCharsets.UTF_8));
+        return f.toPath();
+    }
+
+    static String readAll(MappedFileReader in) throws Exception {
+        StringBuilder res = new StringBuilder();
+        char[] buf = new char[7];
+        int n;
+        while ((n = in.read(buf, 0, buf.length)) != -1) {
+            res.append(buf, 0, n);
+        }
+        in.close();
+        return res.toString();
+    }
+
+    @Test
+    public void testSingleRegion() throws Exception {
+        assertEquals(TEXT, readAll(new MappedFileReader(write(TEXT))));
+    }
+
+    @Test
+    public void testSequencesAcrossRegions() throws Exception {
+        Path path = write(TEXT);
+        for (int regionSize = 4; regionSize < 12; ++regionSize) {
+            assertEquals(TEXT, readAll(new MappedFileReader(path, regionSize)));
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        assertEquals("", readAll(new MappedFileReader(write(""))));
+    }
+
+    @Test
+    public void testParseAcrossRegions() throws Exception {
+        JsonReader in = new JsonReader(new MappedFileReader(write(TEXT), 5));
+        assertEquals(JsonParser.parse(TEXT), JsonParser.parse(in));
+        assertEquals(JsonToken.END_DOCUMENT, in.peek());
+    }
+}
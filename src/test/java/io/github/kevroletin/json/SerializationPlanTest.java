@@ -0,0 +1,54 @@
+package io.github.kevroletin.json;
+
+import io.github.kevroletin.json.TestTypes.Point;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SerializationPlanTest {
+
+    static class Base {
+        public Integer b;
+        public Integer value;
+    }
+
+    static class Derived extends Base {
+        public Integer a;
+        public Integer value;
+    }
+
+    class Inner {
+        public Integer x;
+    }
+
+    static String[] names(SerializationPlan plan) {
+        String[] names = new String[plan.fields.length];
+        for (int i = 0; i < names.length; ++i) {
+            names[i] = plan.fields[i].name;
+        }
+        return names;
+    }
+
+    @Test
+    public void testCached() {
+        assertSame(SerializationPlan.of(Point.class), SerializationPlan.of(Point.class));
+    }
+
+    @Test
+    public void testFieldsSortedWithSuperclass() {
+        SerializationPlan plan = SerializationPlan.of(Derived.class);
+        assertArrayEquals(new String[] {"a", "b", "value", "value"}, names(plan));
+        // Subclass field goes first so superclass value is written last
+        assertEquals(Derived.class, plan.fields[2].field.getDeclaringClass());
+    }
+
+    @Test
+    public void testSkipsOuterReference() {
+        assertArrayEquals(new String[] {"x"}, names(SerializationPlan.of(Inner.class)));
+    }
+
+    @Test
+    public void testEscapedNames() {
+        SerializationPlan plan = SerializationPlan.of(Point.class);
+        assertEquals("\"x\"", plan.fields[0].escapedName);
+    }
+}
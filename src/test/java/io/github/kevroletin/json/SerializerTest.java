@@ -8,6 +8,7 @@ import io.github.kevroletin.json.AST.ObjectNode;
 import io.github.kevroletin.json.TestTypes.IntCons;
 import io.github.kevroletin.json.TestTypes.Point;
 import io.github.kevroletin.json.TestTypes.GenericWrapper;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -172,4 +173,65 @@ public class SerializerTest {
         );
     }
 
+    static class Base {
+        public Integer value = 1;
+    }
+
+    static class Shadowed extends Base {
+        public Integer value = 2;
+        public String str = "a\tb\"c";
+    }
+
+    static void assertSameAsTree(Object x) throws SerializationException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        new Serializer().serialize(x, writer);
+        writer.flush();
+        assertEquals(new Serializer().serialize(x).toJson(), out.toString());
+    }
+
+    @Test
+    public void testStreamingSameAsTree() throws Exception {
+        assertSameAsTree(null);
+        assertSameAsTree(-123);
+        assertSameAsTree(Integer.MIN_VALUE);
+        assertSameAsTree(1.5e-300);
+        assertSameAsTree(new int[] {});
+        assertSameAsTree(new Object[] {1, "x", null, true, new double[] {1.0, 2.0}});
+        assertSameAsTree(new Point(1.0, 2.0));
+        assertSameAsTree(new IntCons(1, new IntCons(2, null)));
+        assertSameAsTree(new GenericWrapper("Secret"));
+        assertSameAsTree(new Shadowed());
+    }
+
+    @org.junit.Test(expected = SerializationException.class)
+    public void testStreamingCircularDependency() throws Exception {
+        IntCons lastNode = new IntCons(2, null);
+        IntCons list = new IntCons(1, lastNode);
+        lastNode.next = list;
+
+        new Serializer().serialize(list, new JsonWriter(new StringWriter()));
+    }
+
+    @org.junit.Test
+    public void testNotFinite() throws Exception {
+        for (Object x: new Object[] {Double.POSITIVE_INFINITY, new Point(Double.NaN, 1.0)}) {
+            try {
+                new Serializer().serialize(x);
+                fail();
+            } catch (SerializationException e) {
+            }
+            try {
+                new Serializer().serialize(x, new JsonWriter(new StringWriter()));
+                fail();
+            } catch (SerializationException e) {
+            }
+        }
+    }
+
+    @org.junit.Test(expected = SerializationException.class)
+    public void testStreamingUnsupported() throws Exception {
+        new Serializer().serialize(new char[] {'a'}, new JsonWriter(new StringWriter()));
+    }
+
 }
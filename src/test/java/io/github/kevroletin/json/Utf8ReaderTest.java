@@ -0,0 +1,65 @@
+package io.github.kevroletin.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class Utf8ReaderTest {
+
+    static final String TEXT = "ascii, кириллица, €uro, 😀 and 𝄞";
+
+    static String readAll(Utf8Reader in, int chunk) throws IOException {
+        StringBuilder res = new StringBuilder();
+        char[] buf = new char[chunk];
+        int n;
+        while ((n = in.read(buf, 0, chunk)) != -1) {
+            res.append(buf, 0, n);
+        }
+        return res.toString();
+    }
+
+    @Test
+    public void testHeapBuffer() throws Exception {
+        ByteBuffer bytes = ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8));
+        assertEquals(TEXT, readAll(new Utf8Reader(bytes), 1024));
+        assertEquals(0, bytes.position());
+    }
+
+    @Test
+    public void testDirectBuffer() throws Exception {
+        byte[] data = TEXT.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(data.length);
+        bytes.put(data);
+        bytes.flip();
+        assertEquals(TEXT, readAll(new Utf8Reader(bytes), 1024));
+    }
+
+    @Test
+    public void testSurrogatePairsSplitBetweenReads() throws Exception {
+        for (int chunk = 1; chunk < 4; ++chunk) {
+            ByteBuffer bytes = ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8));
+            assertEquals(TEXT, readAll(new Utf8Reader(bytes), chunk));
+        }
+    }
+
+    @Test
+    public void testMalformed() throws Exception {
+        byte[][] inputs = {
+            {(byte) 0xd0},                          // truncated
+            {(byte) 0xd0, 'a'},                     // bad continuation
+            {(byte) 0xc0, (byte) 0x80},             // overlong
+            {(byte) 0xed, (byte) 0xa0, (byte) 0x80}, // encoded surrogate
+            {(byte) 0xff}
+        };
+        for (byte[] input: inputs) {
+            try {
+                readAll(new Utf8Reader(ByteBuffer.wrap(input)), 16);
+                fail();
+            } catch (IOException e) {
+                assertEquals("Malformed UTF-8 input at byte 0", e.getMessage());
+            }
+        }
+    }
+}
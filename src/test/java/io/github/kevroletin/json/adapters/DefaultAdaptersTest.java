@@ -0,0 +1,38 @@
+package io.github.kevroletin.json.adapters;
+
+import io.github.kevroletin.json.GeneratedCodec;
+import io.github.kevroletin.json.GeneratedCodecTest;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DefaultAdaptersTest {
+
+    @Test
+    public void testLoadCodecsSkipsBrokenEntries() throws Exception {
+        Path dir = Files.createTempDirectory("json-codecs");
+        Path services = dir.resolve("META-INF/services");
+        Files.createDirectories(services);
+        Files.write(
+            services.resolve(GeneratedCodec.class.getName()),
+            Arrays.asList(
+                "no.such.Codec",
+                "java.lang.String",
+                GeneratedCodecTest.ItemCodec.class.getName()),
+            StandardCharsets.UTF_8);
+
+        try (URLClassLoader loader = new URLClassLoader(
+                 new URL[] {dir.toUri().toURL()}, DefaultAdaptersTest.class.getClassLoader()))
+        {
+            Map<Class, GeneratedCodec> codecs = DefaultAdapters.loadCodecs(loader);
+            assertEquals(1, codecs.size());
+            assertTrue(codecs.get(GeneratedCodecTest.Item.class) instanceof GeneratedCodecTest.ItemCodec);
+        }
+    }
+}
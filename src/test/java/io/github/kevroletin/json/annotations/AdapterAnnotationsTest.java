@@ -1,6 +1,9 @@
 package io.github.kevroletin.json.annotations;
 
 import io.github.kevroletin.Json;
+import io.github.kevroletin.json.Deserializer;
+import io.github.kevroletin.json.JsonParser;
+import io.github.kevroletin.json.JsonReader;
 import io.github.kevroletin.json.Location;
 import io.github.kevroletin.json.Result;
 import io.github.kevroletin.json.ValueSanitizer;
@@ -8,6 +11,7 @@ import io.github.kevroletin.json.exceptions.JsonParsingException;
 import io.github.kevroletin.json.utils.Maybe;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 import static org.junit.Assert.*;
 
@@ -81,6 +85,41 @@ class Point {
     }
 }
 
+class CountingValidator implements SanitizerFactory<PositiveIntegerSanitizer> {
+    static final AtomicInteger created = new AtomicInteger();
+
+    @Override
+    public PositiveIntegerSanitizer create() {
+        created.incrementAndGet();
+        return new PositiveIntegerSanitizer();
+    }
+
+}
+
+class SharedCountingValidator extends CountingValidator {
+    static final AtomicInteger created = new AtomicInteger();
+
+    @Override
+    public PositiveIntegerSanitizer create() {
+        created.incrementAndGet();
+        return new PositiveIntegerSanitizer();
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
+}
+
+class Counted {
+    @Sanitizer(cls = CountingValidator.class)
+    public Integer a;
+
+    @Sanitizer(cls = SharedCountingValidator.class)
+    public Integer b;
+}
+
 public class AdapterAnnotationsTest {
 
     @Test
@@ -100,4 +139,29 @@ public class AdapterAnnotationsTest {
         assertTrue(p.getErrors().get(0).contains("Integer should be positive"));
     }
 
+    @Test
+    public void testSanitizersAreCached() throws Exception {
+        Deserializer d = new Deserializer();
+        String input = "[{\"a\": 1, \"b\": 2}, {\"a\": 3, \"b\": -4}, {\"a\": 5, \"b\": 6}]";
+        Runnable run = () -> {
+            try {
+                d.deserialize(JsonParser.parse(input), Counted[].class);
+                d.deserialize(new JsonReader(input), Counted[].class);
+            } catch (JsonParsingException ex) {
+                throw new RuntimeException(ex);
+            }
+        };
+        run.run();
+        assertEquals(1, d.deserialize(new JsonReader(input), Counted[].class).getErrors().size());
+        assertEquals(1, CountingValidator.created.get());
+        assertEquals(1, SharedCountingValidator.created.get());
+
+        Thread t = new Thread(run);
+        t.start();
+        t.join();
+        // Not thread safe sanitizers are created per thread
+        assertEquals(2, CountingValidator.created.get());
+        assertEquals(1, SharedCountingValidator.created.get());
+    }
+
 }